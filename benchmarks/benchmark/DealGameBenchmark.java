@@ -0,0 +1,73 @@
+package benchmark;
+
+import gameImplementations.poker.texasHoldem.BetScript;
+import gameImplementations.poker.texasHoldem.TexasHoldem;
+import gameImplementations.poker.texasHoldem.history.HandHistoryRecorder;
+import gameImplementations.poker.texasHoldem.history.HandHistoryWriter;
+import org.openjdk.jmh.annotations.*;
+import participants.Player;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A whole hold'em hand through {@link TexasHoldem#dealGame()}: every player
+ * calls the big blind and checks down to the showdown. {@link #dealGame()}
+ * runs silently, {@link #dealGameRecorded()} appends every hand to a binary
+ * hand history in a temporary directory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class DealGameBenchmark {
+    private static final double ANTE = 0;
+    private static final double SMALL_BLIND = 1;
+    private static final double BIG_BLIND = 2;
+    private static final double RAKE = 0.05;
+    private static final double CAP = 3;
+
+    @Param({"2", "6", "10"})
+    public int players;
+
+    private BetScript script;
+    private Path historyDirectory;
+    private HandHistoryWriter writer;
+    private HandHistoryRecorder recorder;
+
+    @Setup(Level.Trial)
+    public void openHistory() throws IOException {
+        script = Seats.callDown(players, SMALL_BLIND, BIG_BLIND);
+        historyDirectory = Files.createTempDirectory("hand-history");
+        writer = new HandHistoryWriter(historyDirectory);
+        recorder = new HandHistoryRecorder(writer);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteHistory() throws IOException {
+        writer.close();
+        try (Stream<Path> files = Files.walk(historyDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Map<Player, Double> dealGame() {
+        return newGame().dealGame();
+    }
+
+    @Benchmark
+    public Map<Player, Double> dealGameRecorded() {
+        TexasHoldem game = newGame();
+        game.setListener(recorder);
+        return game.dealGame();
+    }
+
+    private TexasHoldem newGame() {
+        return new TexasHoldem(Seats.players(players), ANTE, SMALL_BLIND, BIG_BLIND, RAKE, CAP, script);
+    }
+}
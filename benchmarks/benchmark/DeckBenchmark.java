@@ -0,0 +1,57 @@
+package benchmark;
+
+import deck.Card;
+import deck.CardId;
+import deck.ChooseDeck;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deck construction and dealing a full ten handed hold'em hand.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class DeckBenchmark {
+    private static final int TEN_HANDED_CARDS = 10 * 2 + 5;
+    private static final Card ACE_OF_SPADES = CardId.toCard(CardId.of(12, 1));
+
+    private ChooseDeck deck;
+
+    @Setup
+    public void setUp() {
+        deck = new ChooseDeck(new SplittableRandom(42));
+    }
+
+    @Benchmark
+    public ChooseDeck construct() {
+        return new ChooseDeck();
+    }
+
+    @Benchmark
+    public void dealHand(Blackhole bh) {
+        deck.reset();
+        for (int i = 0; i < TEN_HANDED_CARDS; i++) {
+            bh.consume(deck.deal());
+        }
+    }
+
+    @Benchmark
+    public int dealHandIds() {
+        deck.reset();
+        int sum = 0;
+        for (int i = 0; i < TEN_HANDED_CARDS; i++) {
+            sum += deck.dealId();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Card dealKnownCard() {
+        deck.reset();
+        return deck.deal(ACE_OF_SPADES);
+    }
+}
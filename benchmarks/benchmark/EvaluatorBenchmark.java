@@ -0,0 +1,99 @@
+package benchmark;
+
+import deck.ChooseDeck;
+import gameImplementations.poker.HandDescription;
+import gameImplementations.poker.HandEvaluator;
+import gameImplementations.poker.HandStrengthCache;
+import gameImplementations.poker.PokerHandAnalyzer;
+import gameImplementations.poker.StrengthTable;
+import gameImplementations.poker.StrengthTableGenerator;
+import gameImplementations.poker.texasHoldem.HoldemHand;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hand strength and description on random 5, 6 and 7 card hands.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class EvaluatorBenchmark {
+    private static final int HANDS = 1 << 10;
+
+    @Param({"5", "6", "7"})
+    public int cards;
+
+    private HoldemHand[] hands;
+    private long[] masks;
+    private double[] strengths;
+    private int[] ranks;
+    private final StringBuilder description = new StringBuilder();
+    private HandStrengthCache cache;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        ChooseDeck deck = new ChooseDeck(new SplittableRandom(42));
+        hands = new HoldemHand[HANDS];
+        masks = new long[HANDS];
+        strengths = new double[HANDS];
+        ranks = new int[HANDS];
+        for (int i = 0; i < HANDS; i++) {
+            deck.reset();
+            hands[i] = new HoldemHand(deck.deal(cards));
+            masks[i] = hands[i].getCardMask();
+            strengths[i] = hands[i].getStrength();
+            ranks[i] = hands[i].getRank();
+        }
+        cache = new HandStrengthCache();
+        Path table = Files.createTempFile("strengths", ".hst");
+        StrengthTableGenerator.generate(table);
+        PokerHandAnalyzer.setStrengthTable(StrengthTable.open(table));
+        Files.delete(table);
+    }
+
+    private int nextHand() {
+        return next = (next + 1) & (HANDS - 1);
+    }
+
+    @Benchmark
+    public double getStrengthCollections() {
+        return PokerHandAnalyzer.getStrength(hands[nextHand()], PokerHandAnalyzer.Mode.COLLECTIONS);
+    }
+
+    @Benchmark
+    public double getStrengthStreaming() {
+        return PokerHandAnalyzer.getStrength(hands[nextHand()], PokerHandAnalyzer.Mode.STREAMING);
+    }
+
+    @Benchmark
+    public double getStrengthCached() {
+        return PokerHandAnalyzer.getStrength(hands[nextHand()], PokerHandAnalyzer.Mode.STREAMING, cache);
+    }
+
+    @Benchmark
+    public double getStrengthTable() {
+        return PokerHandAnalyzer.getStrength(hands[nextHand()], PokerHandAnalyzer.Mode.TABLE, null);
+    }
+
+    @Benchmark
+    public int evaluateTable() {
+        return HandEvaluator.evaluate(masks[nextHand()]);
+    }
+
+    @Benchmark
+    public String getDescription() {
+        return PokerHandAnalyzer.getDescription(strengths[nextHand()]);
+    }
+
+    @Benchmark
+    public StringBuilder describe() {
+        description.setLength(0);
+        return HandDescription.describe(ranks[nextHand()], description);
+    }
+}
@@ -0,0 +1,61 @@
+package benchmark;
+
+import game.GameTable;
+import game.TableManager;
+import gameImplementations.poker.texasHoldem.BetScript;
+import gameImplementations.poker.texasHoldem.HoldemSimulation;
+import org.openjdk.jmh.annotations.*;
+import participants.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands per second of a {@link TableManager} as the number of tables it
+ * hosts grows. Every invocation deals {@link #HANDS} scripted six handed
+ * call-downs, spread evenly over the tables.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(MultiTableBenchmark.HANDS)
+@State(Scope.Benchmark)
+public class MultiTableBenchmark {
+    static final int HANDS = 10_000;
+    private static final int SEATS = 6;
+    private static final double SMALL_BLIND = 1;
+    private static final double BIG_BLIND = 2;
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    public int tables;
+
+    private final HoldemSimulation simulation = new HoldemSimulation(0, SMALL_BLIND, BIG_BLIND, 0.05, 3);
+    private final BetScript script = Seats.callDown(SEATS, SMALL_BLIND, BIG_BLIND);
+    private TableManager manager;
+    private List<GameTable> gameTables;
+
+    @Setup(Level.Trial)
+    public void startPool() {
+        manager = new TableManager(Runtime.getRuntime().availableProcessors(), TableManager.DEFAULT_HANDS_PER_TURN);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopPool() {
+        manager.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void seatTables() {
+        gameTables = new ArrayList<>(tables);
+        for (int table = 0; table < tables; table++) {
+            List<Player> seats = Seats.players(SEATS);
+            gameTables.add(new GameTable(table, seats, players -> simulation.newGame(players, script)));
+        }
+    }
+
+    @Benchmark
+    public TableManager.Report dealTables() throws InterruptedException, ExecutionException {
+        return manager.run(gameTables, HANDS / tables);
+    }
+}
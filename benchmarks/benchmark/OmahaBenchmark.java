@@ -0,0 +1,87 @@
+package benchmark;
+
+import deck.CardSet;
+import deck.ChooseDeck;
+import gameImplementations.poker.HandEvaluator;
+import gameImplementations.poker.omaha.OmahaEvaluator;
+import gameImplementations.poker.omaha.OmahaHand;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Omaha showdowns on a new board every time, 2 to 10 handed: the
+ * {@link OmahaEvaluator} against scoring all 60 two plus three combinations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class OmahaBenchmark {
+    private static final int BOARDS = 1 << 8;
+
+    @Param({"2", "6", "10"})
+    public int players;
+
+    private long[] boards;
+    private long[][] holes;
+    private final OmahaEvaluator evaluator = new OmahaEvaluator();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ChooseDeck deck = new ChooseDeck(new SplittableRandom(42));
+        boards = new long[BOARDS];
+        holes = new long[BOARDS][players];
+        for (int i = 0; i < BOARDS; i++) {
+            deck.reset();
+            for (int player = 0; player < players; player++) {
+                holes[i][player] = CardSet.maskOf(deck.deal(OmahaHand.HOLE_CARDS));
+            }
+            boards[i] = CardSet.maskOf(deck.deal(5));
+        }
+    }
+
+    private int nextBoard() {
+        return next = (next + 1) & (BOARDS - 1);
+    }
+
+    @Benchmark
+    public int evaluate() {
+        int i = nextBoard();
+        evaluator.setBoard(boards[i]);
+        int best = 0;
+        for (long hole : holes[i]) {
+            best = Math.max(best, evaluator.evaluate(hole));
+        }
+        return best;
+    }
+
+    @Benchmark
+    public int evaluateAllCombinations() {
+        int i = nextBoard();
+        int best = 0;
+        for (long hole : holes[i]) {
+            for (long a = hole; a != 0; a &= a - 1) {
+                for (long b = a & a - 1; b != 0; b &= b - 1) {
+                    long pair = Long.lowestOneBit(a) | Long.lowestOneBit(b);
+                    best = Math.max(best, bestWithBoard(pair, boards[i]));
+                }
+            }
+        }
+        return best;
+    }
+
+    private static int bestWithBoard(long pair, long board) {
+        int best = 0;
+        for (long a = board; a != 0; a &= a - 1) {
+            for (long b = a & a - 1; b != 0; b &= b - 1) {
+                for (long c = b & b - 1; c != 0; c &= c - 1) {
+                    long triple = Long.lowestOneBit(a) | Long.lowestOneBit(b) | Long.lowestOneBit(c);
+                    best = Math.max(best, HandEvaluator.evaluate(pair | triple));
+                }
+            }
+        }
+        return best;
+    }
+}
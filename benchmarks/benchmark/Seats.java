@@ -0,0 +1,50 @@
+package benchmark;
+
+import deck.ChooseDeck;
+import game.GameEnum;
+import gameImplementations.poker.texasHoldem.BetScript;
+import participants.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Players and dealt hands shared by the benchmarks.
+ */
+final class Seats {
+    static final double STACK = 1000;
+
+    private Seats() {
+    }
+
+    static List<Player> players(int count) {
+        List<Player> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            players.add(new Player("Player " + i, STACK));
+        }
+        return players;
+    }
+
+    /**
+     * @return a script in which every player calls the big blind and checks down to the showdown
+     */
+    static BetScript callDown(int count, double smallBlind, double bigBlind) {
+        double[][] bets = new double[count][];
+        for (int seat = 0; seat < count; seat++) {
+            bets[seat] = seat == 0 ? new double[] {bigBlind - smallBlind} :
+                    seat == 1 ? new double[0] : new double[] {bigBlind};
+        }
+        return BetScript.of(bets);
+    }
+
+    /**
+     * Gives every player a fresh hold'em hand with two cards from the deck.
+     */
+    static void dealHoleCards(List<Player> players, ChooseDeck deck) {
+        for (Player player : players) {
+            player.initHand(GameEnum.TEXAS_HOLDEM);
+            player.receiveCard(deck.deal());
+            player.receiveCard(deck.deal());
+        }
+    }
+}
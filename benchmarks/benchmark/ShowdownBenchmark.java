@@ -0,0 +1,79 @@
+package benchmark;
+
+import deck.Card;
+import deck.CardSet;
+import deck.ChooseDeck;
+import gameImplementations.poker.BoardEvaluator;
+import gameImplementations.poker.PokerHandAnalyzer;
+import gameImplementations.poker.texasHoldem.HoldemHand;
+import org.openjdk.jmh.annotations.*;
+import participants.Player;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranking the players of a showdown and picking its winners, 2 to 10 handed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ShowdownBenchmark {
+    @Param({"2", "3", "4", "5", "6", "7", "8", "9", "10"})
+    public int players;
+
+    private List<Card> board;
+    private Set<Player> playersInHand;
+    private Map<Player, HoldemHand> hands;
+    private long boardMask;
+    private long[] holeMasks;
+    private int[] ranks;
+    private BoardEvaluator boardEvaluator;
+
+    @Setup
+    public void setUp() {
+        ChooseDeck deck = new ChooseDeck(new SplittableRandom(42));
+        List<Player> seats = Seats.players(players);
+        Seats.dealHoleCards(seats, deck);
+        board = deck.deal(5);
+        playersInHand = new LinkedHashSet<>(seats);
+        hands = new HashMap<>();
+        for (Player player : seats) {
+            hands.put(player, new HoldemHand(board, player.getHand().getCards()));
+        }
+        boardMask = CardSet.maskOf(board);
+        holeMasks = new long[players];
+        for (int i = 0; i < players; i++) {
+            holeMasks[i] = CardSet.maskOf(seats.get(i).getHand().getCards());
+        }
+        ranks = new int[players];
+        boardEvaluator = new BoardEvaluator();
+    }
+
+    @Benchmark
+    public List<Player> rankPlayersByHand() {
+        return PokerHandAnalyzer.rankPlayersByHand(board, playersInHand);
+    }
+
+    @Benchmark
+    public List<Player> rankPlayersByHandMap() {
+        return PokerHandAnalyzer.rankPlayersByHand(hands);
+    }
+
+    @Benchmark
+    public Set<Player> getWinner() {
+        return PokerHandAnalyzer.getWinner(board, playersInHand);
+    }
+
+    @Benchmark
+    public int[] evaluateBatch() {
+        boardEvaluator.setBoard(boardMask);
+        boardEvaluator.evaluate(holeMasks, ranks);
+        return ranks;
+    }
+}
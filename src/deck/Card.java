@@ -6,7 +6,14 @@ import java.awt.*;
 
 import static com.googlecode.javacv.cpp.opencv_core.CvScalar;
 
-public class Card implements Comparable<Card> {
+/**
+ * A playing card. There is one instance per rank and suit, kept in a
+ * registry and looked up with {@link #of}, so cards compare by identity and
+ * hash by their {@link #getId() id}. The 52 known cards have their
+ * {@link CardId} as id; cards whose rank or suit was not recognized follow
+ * them, down to {@link #UNKNOWN}, which has neither.
+ */
+public final class Card implements Comparable<Card> {
     public static enum Suit {
         UNRECOGNIZED("*", null, null, null),
         CLUBS("♣", Color.black, Color.green, ColorHsv.BLACK),
@@ -76,12 +83,70 @@ public class Card implements Comparable<Card> {
 
     }
 
+    private static final int SUITS = Suit.values().length;
+    // By rank ordinal * SUITS + suit ordinal
+    private static final Card[] REGISTRY = new Card[Rank.values().length * SUITS];
+    // By id
+    private static final Card[] BY_ID = new Card[REGISTRY.length];
+
+    static {
+        int unrecognized = CardId.COUNT;
+        for (Rank rank : Rank.values()) {
+            for (Suit suit : Suit.values()) {
+                boolean known = rank != Rank.UNRECOGNIZED && suit != Suit.UNRECOGNIZED;
+                // CardId's layout spelled out, CardId itself builds on the registry
+                int id = known ? (rank.ordinal() - 1) << CardId.SUIT_BITS | (suit.ordinal() - 1) : unrecognized++;
+                Card card = new Card(rank, suit, id);
+                REGISTRY[rank.ordinal() * SUITS + suit.ordinal()] = card;
+                BY_ID[id] = card;
+            }
+        }
+    }
+
+    /** The card neither rank nor suit of which was recognized */
+    public static final Card UNKNOWN = of(Rank.UNRECOGNIZED, Suit.UNRECOGNIZED);
+
     final Rank rank;
     final Suit suit;
+    private final int id;
 
-    public Card(final Rank rank, final Suit suit) {
+    private Card(final Rank rank, final Suit suit, final int id) {
         this.rank = rank;
         this.suit = suit;
+        this.id = id;
+    }
+
+    /**
+     * @param rank null for a rank not recognized
+     * @param suit null for a suit not recognized
+     * @return the card of that rank and suit
+     */
+    public static Card of(Rank rank, Suit suit) {
+        int r = (rank == null ? Rank.UNRECOGNIZED : rank).ordinal();
+        int s = (suit == null ? Suit.UNRECOGNIZED : suit).ordinal();
+        return REGISTRY[r * SUITS + s];
+    }
+
+    /**
+     * @return the card with the id, see {@link #getId()}
+     */
+    public static Card ofId(int id) {
+        if (id < 0 || id >= BY_ID.length) {
+            throw new IllegalArgumentException("No card has id " + id);
+        }
+        return BY_ID[id];
+    }
+
+    /**
+     * @return the {@link CardId} of a known card; {@link CardId#COUNT} and up
+     * for a card whose rank or suit was not recognized
+     */
+    public int getId() {
+        return id;
+    }
+
+    public boolean isKnown() {
+        return id < CardId.COUNT;
     }
 
     public Rank getRank() {
@@ -97,15 +162,17 @@ public class Card implements Comparable<Card> {
         return this.rank.getCardSymbol() + this.suit.getSuitSymbol();
     }
 
+    /**
+     * Cards are unique per rank and suit, so equal cards are the same card.
+     */
     @Override
     public boolean equals(Object obj) {
-        if (obj == null || !(obj instanceof Card)) return false;
-
-        Card card = (Card) obj;
-
-        boolean noSuit = (this.suit == null || card.suit == null);
+        return this == obj;
+    }
 
-        return this.rank == card.rank && (noSuit || this.suit == card.suit);
+    @Override
+    public int hashCode() {
+        return id;
     }
 
     @Override
@@ -0,0 +1,93 @@
+package deck;
+
+import deck.Card.Rank;
+import deck.Card.Suit;
+
+/**
+ * Primitive card encoding used on the hot paths. A card is an {@code int} in
+ * 0..51 laid out as {@code rank << 2 | suit}, where rank runs from 0 (TWO) to
+ * 12 (ACE) and suit from 0 to 3 in {@link Suit} declaration order.
+ * UNRECOGNIZED ranks and suits have no id and map to {@link #NONE}.
+ */
+public final class CardId {
+    public static final int NONE = -1;
+
+    public static final int RANKS = 13;
+    public static final int SUITS = 4;
+    public static final int COUNT = RANKS * SUITS;
+
+    public static final int SUIT_BITS = 2;
+    public static final int SUIT_MASK = (1 << SUIT_BITS) - 1;
+
+    private static final Rank[] RANK_VALUES = new Rank[RANKS];
+    private static final Suit[] SUIT_VALUES = new Suit[SUITS];
+
+    static {
+        for (Rank rank : Rank.values()) {
+            if (rank != Rank.UNRECOGNIZED) {
+                RANK_VALUES[rankOf(rank)] = rank;
+            }
+        }
+        for (Suit suit : Suit.values()) {
+            if (suit != Suit.UNRECOGNIZED) {
+                SUIT_VALUES[suitOf(suit)] = suit;
+            }
+        }
+    }
+
+    private CardId() {
+    }
+
+    public static int of(int rank, int suit) {
+        return rank << SUIT_BITS | suit;
+    }
+
+    /**
+     * @return the id of the card, or {@link #NONE} if its rank or suit is unknown
+     */
+    public static int of(Card card) {
+        return (card == null || !card.isKnown()) ? NONE : card.getId();
+    }
+
+    public static int rank(int id) {
+        return id >>> SUIT_BITS;
+    }
+
+    public static int suit(int id) {
+        return id & SUIT_MASK;
+    }
+
+    /**
+     * @return the rank as used by {@link Rank#getStrength()}, 2 (TWO) to 14 (ACE)
+     */
+    public static int strength(int id) {
+        return rank(id) + Rank.TWO.getStrength();
+    }
+
+    public static int rankOf(Rank rank) {
+        return (rank == null || rank == Rank.UNRECOGNIZED) ? NONE : rank.ordinal() - Rank.TWO.ordinal();
+    }
+
+    public static int suitOf(Suit suit) {
+        return (suit == null || suit == Suit.UNRECOGNIZED) ? NONE : suit.ordinal() - Suit.CLUBS.ordinal();
+    }
+
+    public static Rank toRank(int rank) {
+        return RANK_VALUES[rank];
+    }
+
+    public static Suit toSuit(int suit) {
+        return SUIT_VALUES[suit];
+    }
+
+    /**
+     * @return the registry's {@link Card} for the id
+     */
+    public static Card toCard(int id) {
+        return Card.ofId(id);
+    }
+
+    public static String toString(int id) {
+        return (id < 0 || id >= COUNT) ? Card.UNKNOWN.toString() : Card.ofId(id).toString();
+    }
+}
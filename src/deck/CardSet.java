@@ -0,0 +1,181 @@
+package deck;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A set of distinct cards held as a 52-bit mask, bit {@code id} standing for
+ * the card with that {@link CardId}. The static methods work on raw masks so
+ * that hot loops can keep a set in a local {@code long}; the instance methods
+ * wrap the same operations for code that prefers an object.
+ */
+public final class CardSet {
+    public static final long EMPTY = 0L;
+    public static final long FULL_DECK = (1L << CardId.COUNT) - 1;
+
+    private long mask;
+
+    public CardSet() {
+        this(EMPTY);
+    }
+
+    public CardSet(long mask) {
+        this.mask = mask & FULL_DECK;
+    }
+
+    public static CardSet of(Collection<Card> cards) {
+        return new CardSet(maskOf(cards));
+    }
+
+    ////////////////////////////////////////
+    // Mask operations
+    ////////////////////////////////////////
+
+    public static long bit(int id) {
+        return 1L << id;
+    }
+
+    public static long with(long mask, int id) {
+        return mask | bit(id);
+    }
+
+    public static long without(long mask, int id) {
+        return mask & ~bit(id);
+    }
+
+    public static boolean contains(long mask, int id) {
+        return (mask & bit(id)) != 0;
+    }
+
+    public static long union(long mask, long other) {
+        return mask | other;
+    }
+
+    public static long intersection(long mask, long other) {
+        return mask & other;
+    }
+
+    public static long minus(long mask, long other) {
+        return mask & ~other;
+    }
+
+    public static int size(long mask) {
+        return Long.bitCount(mask);
+    }
+
+    /**
+     * @return the lowest card id in the mask, or {@link CardId#NONE} if it is empty
+     */
+    public static int first(long mask) {
+        return mask == EMPTY ? CardId.NONE : Long.numberOfTrailingZeros(mask);
+    }
+
+    /**
+     * Unknown cards are skipped, duplicates collapse into one bit.
+     */
+    public static long maskOf(Collection<Card> cards) {
+        long mask = EMPTY;
+        for (Card card : cards) {
+            int id = CardId.of(card);
+            if (id != CardId.NONE) {
+                mask |= bit(id);
+            }
+        }
+        return mask;
+    }
+
+    public static long maskOf(int... ids) {
+        long mask = EMPTY;
+        for (int id : ids) {
+            mask |= bit(id);
+        }
+        return mask;
+    }
+
+    /**
+     * @return the cards of the mask, from the lowest id to the highest
+     */
+    public static List<Card> toCards(long mask) {
+        List<Card> cards = new ArrayList<>(size(mask));
+        for (long rest = mask; rest != EMPTY; rest &= rest - 1) {
+            cards.add(CardId.toCard(Long.numberOfTrailingZeros(rest)));
+        }
+        return cards;
+    }
+
+    ////////////////////////////////////////
+    // Instance operations
+    ////////////////////////////////////////
+
+    public long getMask() {
+        return mask;
+    }
+
+    public boolean add(int id) {
+        long before = mask;
+        mask = with(mask, id);
+        return mask != before;
+    }
+
+    public boolean add(Card card) {
+        int id = CardId.of(card);
+        return id != CardId.NONE && add(id);
+    }
+
+    public boolean remove(int id) {
+        long before = mask;
+        mask = without(mask, id);
+        return mask != before;
+    }
+
+    public boolean remove(Card card) {
+        int id = CardId.of(card);
+        return id != CardId.NONE && remove(id);
+    }
+
+    public boolean contains(int id) {
+        return contains(mask, id);
+    }
+
+    public boolean contains(Card card) {
+        int id = CardId.of(card);
+        return id != CardId.NONE && contains(id);
+    }
+
+    public CardSet union(CardSet other) {
+        mask = union(mask, other.mask);
+        return this;
+    }
+
+    public int size() {
+        return size(mask);
+    }
+
+    public boolean isEmpty() {
+        return mask == EMPTY;
+    }
+
+    public void clear() {
+        mask = EMPTY;
+    }
+
+    public List<Card> toCards() {
+        return toCards(mask);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof CardSet && ((CardSet) obj).mask == mask;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(mask);
+    }
+
+    @Override
+    public String toString() {
+        return toCards().toString();
+    }
+}
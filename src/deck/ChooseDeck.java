@@ -1,35 +1,52 @@
 package deck;
 
-import java.util.Collections;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a deck of cards. A deck starts with 52 cards. The cards
  * in a deck may be dealt one by one from the deck.
  *
- * Revised to include throwing an EmptyDeckException when there is an 
+ * Revised to include throwing an EmptyDeckException when there is an
  * attempt to deal from an empty deck.
  *
- * 
+ * Cards are kept as {@link CardId}s in an array whose first
+ * {@link #cardsInDeck()} slots hold the cards still in the deck. Dealing
+ * swaps a random slot into the shrinking tail (a partial Fisher-Yates
+ * shuffle), a known card is found through its slot index, and
+ * {@link #reset()} puts every dealt card back without reallocating.
  */
 public class ChooseDeck {
 
-	private List<Card> deck; 
-	
-	public ChooseDeck(int deckNumber){
-		deck = new LinkedList<>();
-
-		for (int i = 0 ; i < deckNumber ; i++){
-			for (Card.Suit suit : Card.Suit.values()) {
-	            for (Card.Rank rank : Card.Rank.values()) {
-	                deck.add(new Card(rank, suit));
-	            }
-	        }
+	private final int deckNumber;
+	// slot -> physical card (copy * CardId.COUNT + id), and back
+	private final int[] deck;
+	private final int[] slotOf;
+	private int size;
+	private final RandomGenerator random;
+
+	public ChooseDeck(int deckNumber, RandomGenerator random){
+		this.deckNumber = deckNumber;
+		this.random = random;
+		deck = new int[deckNumber * CardId.COUNT];
+		slotOf = new int[deck.length];
+		for (int i = 0 ; i < deck.length ; i++){
+			deck[i] = i;
+			slotOf[i] = i;
 		}
-        Collections.sort(deck);
-    }
-	
+		size = deck.length;
+	}
+
+	public ChooseDeck(int deckNumber){
+		this(deckNumber, new SplittableRandom());
+	}
+
+	public ChooseDeck(RandomGenerator random){
+		this(1, random);
+	}
+
 	/**
 	 * Constructs a new Deck object containing 52 cards.
 	 */
@@ -45,17 +62,56 @@ public class ChooseDeck {
 	 * Returns the number of cards in the deck.
 	 * @return number of cards in the deck
 	 */
-	public int cardsInDeck() { return deck.size(); }
+	public int cardsInDeck() { return size; }
+
+	/**
+	 * Returns the number of cards dealt or removed since the deck was full.
+	 * @return number of cards out of the deck
+	 */
+	public int cardsDealt() { return deck.length - size; }
+
+	/**
+	 * Returns the known cards still in the deck as a {@link CardSet} mask.
+	 * @return mask of the remaining cards
+	 */
+	public long getCardMask() {
+		long mask = CardSet.EMPTY;
+		for (int slot = 0; slot < size; slot++) {
+			mask |= CardSet.bit(deck[slot] % CardId.COUNT);
+		}
+		return mask;
+	}
+
+	/**
+	 * Puts every dealt card back into the deck.
+	 */
+	public void reset() { size = deck.length; }
 
 	/**
 	 * Removes or "deals" a specified card from the deck
 	 */
 	public Card deal(Card card) {
-        return (deck.remove(card)) ? card : null;
+		int id = CardId.of(card);
+		return (id != CardId.NONE && removeId(id)) ? CardId.toCard(id) : null;
+	}
+
+	/**
+	 * Removes a specified card from the deck
+	 * @return false if no copy of the card is left in the deck
+	 */
+	public boolean removeId(int id) {
+		for (int copy = 0; copy < deckNumber; copy++) {
+			int slot = slotOf[copy * CardId.COUNT + id];
+			if (slot < size) {
+				moveToTail(slot);
+				return true;
+			}
+		}
+		return false;
 	}
 
     public List<Card> deal(int nrToDeal) {
-        List<Card> dealtCards = new LinkedList<>();
+        List<Card> dealtCards = new ArrayList<>(nrToDeal);
         for (int i = 0; i < nrToDeal; i++){
             dealtCards.add(deal());
         }
@@ -63,16 +119,39 @@ public class ChooseDeck {
     }
 
     public Card deal() {
-        if (deck.size() > 0) {
-            return deck.remove((int) (Math.random() * deck.size()));
+        int id = dealId();
+        return id == CardId.NONE ? null : CardId.toCard(id);
+    }
+
+	/**
+	 * Deals a random card
+	 * @return the card's id, or {@link CardId#NONE} if the deck is empty
+	 */
+    public int dealId() {
+        if (size > 0) {
+            return deck[moveToTail(random.nextInt(size))] % CardId.COUNT;
         }
-        return null;
+        return CardId.NONE;
     }
 
+	/**
+	 * Swaps the card in the slot with the last card in the deck and shrinks the deck over it.
+	 * @return the slot the card ended in
+	 */
+	private int moveToTail(int slot) {
+		int last = --size;
+		int card = deck[slot];
+		deck[slot] = deck[last];
+		slotOf[deck[slot]] = slot;
+		deck[last] = card;
+		slotOf[card] = last;
+		return last;
+	}
+
     /**
-	 * Returns a String representation of the Deck object. The cards 
+	 * Returns a String representation of the Deck object. The cards
 	 * currently in the deck are printed out 13 to a row.
-	 * 
+	 *
 	 * @return a String representation of the deck
 	 */
 	public String toString() {
@@ -81,13 +160,18 @@ public class ChooseDeck {
 		if (cardsInDeck() == 0)
 			return "Empty Deck";
 
-		String deckString = "";
+		StringBuilder deckString = new StringBuilder();
         int counter = 1;
-		for (Card card : deck){
-			deckString += (counter++ + ": " + card + "\n");
+		// From high to low, as the cards sort
+		for (int id = CardId.COUNT - 1; id >= 0; id--){
+			for (int copy = 0; copy < deckNumber; copy++) {
+				if (slotOf[copy * CardId.COUNT + id] < size) {
+					deckString.append(counter++).append(": ").append(CardId.toCard(id)).append("\n");
+				}
+			}
 		}
 
-		return deckString;
+		return deckString.toString();
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+package deck;
+
+/**
+ * Poker hands do not care which suit is which, only which cards share one,
+ * so renaming the suits of every card in a situation changes nothing. This
+ * class renames suits of {@link CardSet} masks under the 24 permutations of
+ * the four suits, to:
+ * <ul>
+ *     <li>map a situation, given as ordered groups of cards such as each
+ *     player's hole cards and then the board, to one canonical
+ *     representative of all its renamings, together with how many distinct
+ *     situations it stands for;</li>
+ *     <li>find the renamings that leave a situation as it is, so work over
+ *     what may still come, e.g. every runout, only needs to look at one
+ *     runout out of each set of equivalent ones, weighted by the set's size.</li>
+ * </ul>
+ * Sets of permutations are {@code int} bit masks, bit {@code p} standing for
+ * permutation {@code p}; permutation 0 is the identity.
+ */
+public final class SuitIsomorphism {
+    public static final int PERMUTATIONS = 24;
+    public static final int ALL = (1 << PERMUTATIONS) - 1;
+    public static final int IDENTITY = 1;
+
+    // One bit per rank in suit 0's lane
+    private static final long LANE;
+    // PERMUTATION[p][suit] is where permutation p takes the suit
+    private static final int[][] PERMUTATION = new int[PERMUTATIONS][CardId.SUITS];
+
+    static {
+        long lane = 0;
+        for (int rank = 0; rank < CardId.RANKS; rank++) {
+            lane |= CardSet.bit(CardId.of(rank, 0));
+        }
+        LANE = lane;
+        int p = 0;
+        for (int a = 0; a < CardId.SUITS; a++) {
+            for (int b = 0; b < CardId.SUITS; b++) {
+                for (int c = 0; c < CardId.SUITS; c++) {
+                    int d = 6 - a - b - c;
+                    if (a != b && a != c && b != c && d != a && d != b && d != c) {
+                        PERMUTATION[p++] = new int[]{a, b, c, d};
+                    }
+                }
+            }
+        }
+    }
+
+    private SuitIsomorphism() {
+    }
+
+    /**
+     * @return the cards with their suits renamed by the permutation
+     */
+    public static long permute(long mask, int permutation) {
+        int[] to = PERMUTATION[permutation];
+        return (mask & LANE) << to[0]
+                | (mask >>> 1 & LANE) << to[1]
+                | (mask >>> 2 & LANE) << to[2]
+                | (mask >>> 3 & LANE) << to[3];
+    }
+
+    /**
+     * @return the permutations among {@code within} that leave every group as it is
+     */
+    public static int stabilizer(int within, long... groups) {
+        int stabilizer = 0;
+        for (int rest = within; rest != 0; rest &= rest - 1) {
+            int p = Integer.numberOfTrailingZeros(rest);
+            boolean fixed = true;
+            for (int g = 0; g < groups.length && fixed; g++) {
+                fixed = permute(groups[g], p) == groups[g];
+            }
+            stabilizer |= fixed ? 1 << p : 0;
+        }
+        return stabilizer;
+    }
+
+    public static int stabilizer(long... groups) {
+        return stabilizer(ALL, groups);
+    }
+
+    /**
+     * @return whether no permutation among {@code within} takes the cards to a smaller mask
+     */
+    public static boolean isCanonical(long mask, int within) {
+        for (int rest = within & ~IDENTITY; rest != 0; rest &= rest - 1) {
+            if (permute(mask, Integer.numberOfTrailingZeros(rest)) < mask) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param within a group of permutations, such as a {@link #stabilizer}
+     * @return how many distinct masks the permutations take the cards to
+     */
+    public static int orbitSize(long mask, int within) {
+        return Integer.bitCount(within) / Integer.bitCount(stabilizer(within, mask));
+    }
+
+    /**
+     * @return the cards with their suits renamed in order of what each suit
+     * holds, the same for every renaming of the cards
+     */
+    public static long canonical(long mask) {
+        long a = mask & LANE;
+        long b = mask >>> 1 & LANE;
+        long c = mask >>> 2 & LANE;
+        long d = mask >>> 3 & LANE;
+        // Sorting network on the four lanes
+        long lowAB = Math.min(a, b), highAB = Math.max(a, b);
+        long lowCD = Math.min(c, d), highCD = Math.max(c, d);
+        long middleLow = Math.max(lowAB, lowCD), middleHigh = Math.min(highAB, highCD);
+        return Math.min(lowAB, lowCD)
+                | Math.min(middleLow, middleHigh) << 1
+                | Math.max(middleLow, middleHigh) << 2
+                | Math.max(highAB, highCD) << 3;
+    }
+
+    /**
+     * Renames the suits of all groups together, in order of what each suit
+     * holds in the first group, then in the second and so on, so that every
+     * renaming of the groups ends up the same. For a single group this is
+     * {@link #canonical(long)}.
+     *
+     * @param groups replaced by their canonical form
+     * @return how many distinct situations the canonical form stands for
+     */
+    public static int canonicalize(long[] groups) {
+        int[] order = {0, 1, 2, 3};
+        for (int i = 1; i < order.length; i++) {
+            for (int j = i; j > 0 && compareSuits(groups, order[j - 1], order[j]) > 0; j--) {
+                int suit = order[j];
+                order[j] = order[j - 1];
+                order[j - 1] = suit;
+            }
+        }
+        // Suits holding the same in every group can be swapped freely
+        int stabilizer = 1;
+        for (int i = 1, run = 1; i < order.length; i++) {
+            run = compareSuits(groups, order[i - 1], order[i]) == 0 ? run + 1 : 1;
+            stabilizer *= run;
+        }
+        for (int g = 0; g < groups.length; g++) {
+            long group = groups[g];
+            groups[g] = (group >>> order[0] & LANE)
+                    | (group >>> order[1] & LANE) << 1
+                    | (group >>> order[2] & LANE) << 2
+                    | (group >>> order[3] & LANE) << 3;
+        }
+        return PERMUTATIONS / stabilizer;
+    }
+
+    private static int compareSuits(long[] groups, int suit, int other) {
+        for (long group : groups) {
+            int order = Long.compare(group >>> suit & LANE, group >>> other & LANE);
+            if (order != 0) {
+                return order;
+            }
+        }
+        return 0;
+    }
+}
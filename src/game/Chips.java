@@ -0,0 +1,60 @@
+package game;
+
+/**
+ * Chip amounts as whole numbers of minor units, a hundredth of a chip, so
+ * that bets, pots and payouts add up exactly. Players still count their
+ * stacks in chips; amounts are converted when they cross into a game.
+ */
+public final class Chips {
+    public static final long UNITS_PER_CHIP = 100;
+
+    private Chips() {
+    }
+
+    /**
+     * @return the amount in minor units, rounded to the nearest unit
+     */
+    public static long of(double chips) {
+        return Math.round(chips * UNITS_PER_CHIP);
+    }
+
+    public static double toChips(long units) {
+        return units / (double) UNITS_PER_CHIP;
+    }
+
+    /**
+     * Splits an amount into equal shares, the units that do not divide
+     * evenly going one each to the first shares.
+     *
+     * @param share index of the share, 0 for the first
+     * @return the share's amount
+     */
+    public static long share(long amount, int shares, int share) {
+        return amount / shares + (share < amount % shares ? 1 : 0);
+    }
+
+    /**
+     * @return the share of {@code amount} the rate gives, rounded down
+     */
+    public static long portion(long amount, long numerator, long denominator) {
+        // Split the amount so the products stay within a long
+        return amount / denominator * numerator + amount % denominator * numerator / denominator;
+    }
+
+    /**
+     * @return the amount in chips with two decimals, e.g. {@code 12.05}
+     */
+    public static String toString(long units) {
+        StringBuilder chips = new StringBuilder();
+        if (units < 0) {
+            chips.append('-');
+        }
+        long abs = Math.abs(units);
+        long cents = abs % UNITS_PER_CHIP;
+        chips.append(abs / UNITS_PER_CHIP).append('.');
+        if (cents < 10) {
+            chips.append('0');
+        }
+        return chips.append(cents).toString();
+    }
+}
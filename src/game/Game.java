@@ -2,6 +2,7 @@ package game;
 
 import participants.Player;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -17,4 +18,14 @@ public interface Game {
 
     public Map<Player, Double> dealGame();
 
+    /**
+     * Deals the hand and settles it in {@link Chips} minor units. Games that
+     * keep their books in minor units override this; by default the
+     * {@link #dealGame()} result is converted.
+     */
+    public default Settlement playHand() {
+        List<Player> seats = new ArrayList<>(getPlayersInHand());
+        return Settlement.of(seats, dealGame());
+    }
+
 }
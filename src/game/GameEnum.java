@@ -1,11 +1,12 @@
 package game;
 
 import gameImplementations.blackJack.BlackJackHandFactory;
+import gameImplementations.poker.omaha.OmahaHandFactory;
 import gameImplementations.poker.texasHoldem.HoldemHandFactory;
 
 public enum GameEnum {
 	TEXAS_HOLDEM(new HoldemHandFactory()),
-    OMAHA(null),
+    OMAHA(new OmahaHandFactory()),
     BLACK_JACK(new BlackJackHandFactory());
 
     protected final HandFactory hf;
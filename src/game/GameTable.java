@@ -4,14 +4,109 @@ import participants.Dealer;
 import participants.Player;
 
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Created by Mati on 21/04/2014.
+ *
+ * A table deals one {@link Game} after another to the same players, a new
+ * game for every hand. All of a table's state belongs to the table, so
+ * tables need no locks as long as each one is dealt by a single thread at
+ * a time, as {@link TableManager} does.
  */
 public class GameTable {
 
+    private final int tableId;
+    private final Function<List<Player>, ? extends Game> games;
     private Game game;
     private Dealer dealer;
     private List<Player> players;
 
+    private long handsDealt;
+    // Chips in minor units, see Chips
+    private long paidOut;
+    private long rake;
+    private volatile boolean closed;
+
+    public GameTable(int tableId, List<Player> players, Function<List<Player>, ? extends Game> games) {
+        this(tableId, null, players, games);
+    }
+
+    /**
+     * @param games makes the game for the next hand, given the table's players
+     */
+    public GameTable(int tableId, Dealer dealer, List<Player> players, Function<List<Player>, ? extends Game> games) {
+        this.tableId = tableId;
+        this.dealer = dealer;
+        this.players = players;
+        this.games = games;
+    }
+
+    /**
+     * Deals a single hand.
+     * @return what the hand paid out
+     */
+    public Settlement dealHand() {
+        game = games.apply(players);
+        Settlement payup = game.playHand();
+        rake += payup.getRake();
+        paidOut += payup.getPaidOut();
+        handsDealt++;
+        return payup;
+    }
+
+    /**
+     * Deals hands until {@code hands} are dealt or the table is closed.
+     * @return the number of hands dealt
+     */
+    public int deal(int hands) {
+        int dealt = 0;
+        while (dealt < hands && !closed) {
+            dealHand();
+            dealt++;
+        }
+        return dealt;
+    }
+
+    /**
+     * Stops the table after the hand in progress.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int getTableId() {
+        return tableId;
+    }
+
+    /**
+     * @return the game of the last hand dealt, or null before the first
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    public Dealer getDealer() {
+        return dealer;
+    }
+
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    public long getHandsDealt() {
+        return handsDealt;
+    }
+
+    public long getPaidOut() {
+        return paidOut;
+    }
+
+    public long getRake() {
+        return rake;
+    }
 }
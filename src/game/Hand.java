@@ -10,4 +10,12 @@ public interface Hand {
     public double getStrength();
 
     public boolean addCard(Card card);
+
+    /**
+     * @param board the cards every player shares
+     * @return the cards the player shows, and what they make with the board
+     */
+    public default String describe(List<Card> board) {
+        return getCards().toString();
+    }
 }
@@ -0,0 +1,115 @@
+package game;
+
+import participants.Player;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What a hand paid out, in {@link Chips} minor units: the winnings of every
+ * seat, indexed by seat in the order the players sat at the start of the
+ * hand, and the house's rake.
+ */
+public final class Settlement {
+    private final Player[] seats;
+    private final long[] winnings;
+    private long rake;
+
+    public Settlement(List<Player> seats) {
+        this.seats = seats.toArray(new Player[0]);
+        this.winnings = new long[this.seats.length];
+    }
+
+    /**
+     * Reads a {@link Game#dealGame()} result: winnings in chips with the rake under the null player.
+     */
+    public static Settlement of(List<Player> seats, Map<Player, Double> payup) {
+        Settlement settlement = new Settlement(seats);
+        for (Map.Entry<Player, Double> payment : payup.entrySet()) {
+            if (payment.getKey() == null) {
+                settlement.takeRake(Chips.of(payment.getValue()));
+            } else {
+                settlement.award(settlement.seatOf(payment.getKey()), Chips.of(payment.getValue()));
+            }
+        }
+        return settlement;
+    }
+
+    public void award(int seat, long units) {
+        winnings[seat] += units;
+    }
+
+    public void takeRake(long units) {
+        rake += units;
+    }
+
+    public int getSeats() {
+        return seats.length;
+    }
+
+    public Player getPlayer(int seat) {
+        return seats[seat];
+    }
+
+    /**
+     * @return the player's seat, or -1 if the player was not dealt in
+     */
+    public int seatOf(Player player) {
+        for (int seat = 0; seat < seats.length; seat++) {
+            if (seats[seat] == player) {
+                return seat;
+            }
+        }
+        return -1;
+    }
+
+    public long getWinnings(int seat) {
+        return winnings[seat];
+    }
+
+    public long getWinnings(Player player) {
+        int seat = seatOf(player);
+        return seat < 0 ? 0 : winnings[seat];
+    }
+
+    public long getRake() {
+        return rake;
+    }
+
+    /**
+     * @return the winnings of every seat together
+     */
+    public long getPaidOut() {
+        long paidOut = 0;
+        for (long seatWinnings : winnings) {
+            paidOut += seatWinnings;
+        }
+        return paidOut;
+    }
+
+    /**
+     * @return the winners and their winnings in chips, the rake under the null player
+     */
+    public Map<Player, Double> toMap() {
+        Map<Player, Double> payup = new HashMap<>();
+        payup.put(null, Chips.toChips(rake));
+        for (int seat = 0; seat < seats.length; seat++) {
+            if (winnings[seat] != 0) {
+                payup.put(seats[seat], Chips.toChips(winnings[seat]));
+            }
+        }
+        return payup;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder settlement = new StringBuilder();
+        for (int seat = 0; seat < seats.length; seat++) {
+            if (winnings[seat] != 0) {
+                settlement.append(seats[seat]).append(" wins ").append(Chips.toString(winnings[seat])).append(", ");
+            }
+        }
+        return settlement.append("rake ").append(Chips.toString(rake)).toString();
+    }
+}
@@ -0,0 +1,150 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Hosts many {@link GameTable}s on a small pool of threads. A table is dealt
+ * in turns of a few hands; at the end of a turn it goes back to the pool's
+ * queue, so thousands of tables share the threads fairly and each table
+ * is only ever dealt by one thread at a time.
+ *
+ * The pool is a {@link ForkJoinPool} in FIFO mode: a finished turn is
+ * pushed onto the worker's own queue without a lock, and idle workers
+ * steal from busy ones.
+ */
+public class TableManager implements AutoCloseable {
+    public static final int DEFAULT_HANDS_PER_TURN = 16;
+
+    private final ForkJoinPool pool;
+    private final int handsPerTurn;
+    private final Set<GameTable> tables = ConcurrentHashMap.newKeySet();
+
+    public TableManager() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_HANDS_PER_TURN);
+    }
+
+    public TableManager(int threads, int handsPerTurn) {
+        if (handsPerTurn < 1) {
+            throw new IllegalArgumentException("Tables must deal at least one hand per turn");
+        }
+        this.pool = new ForkJoinPool(threads, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        this.handsPerTurn = handsPerTurn;
+    }
+
+    /**
+     * Starts dealing the table.
+     * @param hands hands to deal, {@link Long#MAX_VALUE} to deal until the table is closed
+     * @return completes with the table once it has dealt them or is closed
+     */
+    public CompletableFuture<GameTable> open(GameTable table, long hands) {
+        tables.add(table);
+        CompletableFuture<GameTable> done = new CompletableFuture<>();
+        pool.execute(new Turn(table, hands, done));
+        return done;
+    }
+
+    /**
+     * Deals every table the same number of hands and waits for all of them.
+     */
+    public Report run(List<GameTable> tables, long handsPerTable) throws InterruptedException, ExecutionException {
+        List<CompletableFuture<GameTable>> running = new ArrayList<>(tables.size());
+        long hands = 0;
+        for (GameTable table : tables) {
+            hands -= table.getHandsDealt();
+        }
+        long start = System.nanoTime();
+        for (GameTable table : tables) {
+            running.add(open(table, handsPerTable));
+        }
+        for (CompletableFuture<GameTable> table : running) {
+            hands += table.get().getHandsDealt();
+        }
+        return new Report(tables.size(), hands, System.nanoTime() - start);
+    }
+
+    /**
+     * @return the tables still being dealt
+     */
+    public List<GameTable> getTables() {
+        return new ArrayList<>(tables);
+    }
+
+    /**
+     * Closes every table and stops the pool once the hands in progress are over.
+     */
+    @Override
+    public void close() {
+        for (GameTable table : getTables()) {
+            table.close();
+        }
+        pool.shutdown();
+    }
+
+    private class Turn implements Runnable {
+        private final GameTable table;
+        private final CompletableFuture<GameTable> done;
+        private long remaining;
+
+        private Turn(GameTable table, long hands, CompletableFuture<GameTable> done) {
+            this.table = table;
+            this.remaining = hands;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            try {
+                remaining -= table.deal((int) Math.min(handsPerTurn, remaining));
+                if (remaining > 0 && !table.isClosed()) {
+                    pool.execute(this);
+                } else {
+                    tables.remove(table);
+                    done.complete(table);
+                }
+            } catch (Throwable e) {
+                tables.remove(table);
+                done.completeExceptionally(e);
+            }
+        }
+    }
+
+    public static class Report {
+        private final int tables;
+        private final long hands;
+        private final long elapsedNanos;
+
+        private Report(int tables, long hands, long elapsedNanos) {
+            this.tables = tables;
+            this.hands = hands;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getTables() {
+            return tables;
+        }
+
+        public long getHands() {
+            return hands;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getHandsPerSecond() {
+            return elapsedNanos == 0 ? 0 : hands * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d tables, %d hands in %.1f ms (%.0f hands/s)",
+                    tables, hands, elapsedNanos / 1e6, getHandsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package game.metrics;
+
+/**
+ * A count of events, such as hands dealt. Get one from {@link Metrics#counter}.
+ */
+public final class Counter {
+    private final String name;
+    private final int index;
+
+    Counter(String name, int index) {
+        this.name = name;
+        this.index = index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(long amount) {
+        if (Metrics.isEnabled()) {
+            Metrics.add(index, amount);
+        }
+    }
+}
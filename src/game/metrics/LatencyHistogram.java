@@ -0,0 +1,161 @@
+package game.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Latencies of a {@link Timer} in nanoseconds, counted in log-linear buckets
+ * as HdrHistogram does: every power of two is split into
+ * {@value #SUB_BUCKETS} equal buckets, so a value read back is within about
+ * 3% of what was recorded however large it was. Values above
+ * {@link #MAX_VALUE} count as {@link #MAX_VALUE}.
+ *
+ * Instances are merged copies taken by a {@link MetricsSnapshot}; the
+ * recording side only ever touches the bucket arithmetic here.
+ */
+public final class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    public static final long MAX_VALUE = (1L << 36) - 1;
+    static final int BUCKETS = bucketOf(MAX_VALUE) + 1;
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    LatencyHistogram(long[] counts, long sum, long max) {
+        this.counts = counts;
+        long count = 0;
+        for (long bucket : counts) {
+            count += bucket;
+        }
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    static int bucketOf(long value) {
+        long clamped = Math.min(Math.max(value, 0), MAX_VALUE);
+        // Values below 2 * SUB_BUCKETS get a bucket each, then every power of two gets SUB_BUCKETS
+        int magnitude = 63 - Long.numberOfLeadingZeros(clamped | SUB_BUCKETS) - SUB_BUCKET_BITS;
+        return (magnitude << SUB_BUCKET_BITS) + (int) (clamped >>> magnitude);
+    }
+
+    /**
+     * @return the smallest value that falls in the bucket
+     */
+    static long lowestOf(int bucket) {
+        int magnitude = Math.max(0, (bucket >>> SUB_BUCKET_BITS) - 1);
+        return (long) (bucket - (magnitude << SUB_BUCKET_BITS)) << magnitude;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSumNanos() {
+        return sum;
+    }
+
+    public long getMaxNanos() {
+        return max;
+    }
+
+    public double getMeanNanos() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @param percentile 0 to 100
+     * @return the lowest value of the bucket that holds the percentile, 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile " + percentile + " is not within 0 to 100");
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(lowestOf(bucket), max);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return what was recorded since the earlier copy of the same histogram; the maximum is kept
+     */
+    public LatencyHistogram minus(LatencyHistogram earlier) {
+        long[] difference = counts.clone();
+        for (int bucket = 0; bucket < difference.length; bucket++) {
+            difference[bucket] -= earlier.counts[bucket];
+        }
+        return new LatencyHistogram(difference, sum - earlier.sum, max);
+    }
+
+    /**
+     * @return the usual figures, in the shape JMX clients show
+     */
+    public Summary getSummary() {
+        return new Summary(count, getMeanNanos(), getPercentileNanos(50), getPercentileNanos(90),
+                getPercentileNanos(99), getPercentileNanos(99.9), max);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count %d, mean %.0f ns, p50 %d ns, p99 %d ns, p99.9 %d ns, max %d ns",
+                count, getMeanNanos(), getPercentileNanos(50), getPercentileNanos(99), getPercentileNanos(99.9), max);
+    }
+
+    public static final class Summary {
+        private final long count;
+        private final double meanNanos;
+        private final long p50Nanos;
+        private final long p90Nanos;
+        private final long p99Nanos;
+        private final long p999Nanos;
+        private final long maxNanos;
+
+        @ConstructorProperties({"count", "meanNanos", "p50Nanos", "p90Nanos", "p99Nanos", "p999Nanos", "maxNanos"})
+        public Summary(long count, double meanNanos, long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos,
+                       long maxNanos) {
+            this.count = count;
+            this.meanNanos = meanNanos;
+            this.p50Nanos = p50Nanos;
+            this.p90Nanos = p90Nanos;
+            this.p99Nanos = p99Nanos;
+            this.p999Nanos = p999Nanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMeanNanos() {
+            return meanNanos;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP90Nanos() {
+            return p90Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getP999Nanos() {
+            return p999Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package game.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Counters and timers of what the dealer does most: hands dealt, streets,
+ * showdowns, evaluations. Code that is measured keeps its {@link Counter}s
+ * and {@link Timer}s in static fields and records into them as it runs; a
+ * {@link #snapshot()} reads everything recorded so far, and
+ * {@link #registerMBean()} shows the same figures over JMX.
+ *
+ * Recording never locks or contends. Every thread records into its own
+ * shard, with plain adds it alone makes and publishes with opaque writes;
+ * a snapshot adds the shards up as it reads them. The first snapshot after
+ * a thread dies folds its shard into the totals of threads gone and drops
+ * it, so nothing recorded is lost and short lived threads leave nothing
+ * behind. Recording is on unless the {@code algoDealer.metrics} system
+ * property is false, and can be switched at any time.
+ *
+ * Counts are exact. Reading the clock takes tens of nanoseconds, a share
+ * of a hand worth saving, so timers started with {@link Timer#sample()}
+ * time one call in every {@link #getSampleInterval()}; their histograms
+ * count the calls timed, and their percentiles stand for all of them.
+ */
+public final class Metrics {
+    public static final int MAX_COUNTERS = 64;
+    public static final int MAX_TIMERS = 64;
+    public static final String OBJECT_NAME = "algoDealer:type=Metrics";
+    public static final int DEFAULT_SAMPLE_INTERVAL = 8;
+
+    // A timer's histogram holds its buckets, then the sum and the maximum of what it recorded
+    private static final int SUM = LatencyHistogram.BUCKETS;
+    private static final int MAX = SUM + 1;
+    private static final int HISTOGRAM_SIZE = MAX + 1;
+
+    private static volatile boolean enabled =
+            !"false".equalsIgnoreCase(System.getProperty("algoDealer.metrics"));
+    private static volatile int sampleInterval = DEFAULT_SAMPLE_INTERVAL;
+
+    private static final List<String> counterNames = new ArrayList<>();
+    private static final List<String> timerNames = new ArrayList<>();
+    private static final ConcurrentLinkedQueue<Shard> shards = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<Shard> SHARD = ThreadLocal.withInitial(() -> {
+        Shard shard = new Shard(Thread.currentThread());
+        shards.add(shard);
+        return shard;
+    });
+    // What threads that died recorded; only snapshots, holding its lock, read or write it
+    private static final Shard retired = new Shard(null);
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Switches recording on or off; what was recorded is kept either way.
+     */
+    public static void setEnabled(boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    public static int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    /**
+     * @param interval 1 times every call {@link Timer#sample()} starts
+     */
+    public static void setSampleInterval(int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Sample interval must be at least 1, got " + interval);
+        }
+        sampleInterval = interval;
+    }
+
+    /**
+     * @return the counter of that name, registered on first use
+     */
+    public static Counter counter(String name) {
+        return new Counter(name, register(counterNames, name, MAX_COUNTERS));
+    }
+
+    /**
+     * @return the timer of that name, registered on first use
+     */
+    public static Timer timer(String name) {
+        return new Timer(name, register(timerNames, name, MAX_TIMERS));
+    }
+
+    private static synchronized int register(List<String> names, String name, int max) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("A metric needs a name");
+        }
+        int index = names.indexOf(name);
+        if (index >= 0) {
+            return index;
+        }
+        if (names.size() == max) {
+            throw new IllegalStateException("No room for " + name + ", all " + max + " are registered");
+        }
+        names.add(name);
+        return names.size() - 1;
+    }
+
+    /**
+     * @return everything recorded so far, by all threads
+     */
+    public static MetricsSnapshot snapshot() {
+        String[] counters;
+        String[] timers;
+        synchronized (Metrics.class) {
+            counters = counterNames.toArray(new String[0]);
+            timers = timerNames.toArray(new String[0]);
+        }
+        long[] counts = new long[counters.length];
+        long[][] histograms = new long[timers.length][];
+        synchronized (retired) {
+            for (Iterator<Shard> live = shards.iterator(); live.hasNext(); ) {
+                Shard shard = live.next();
+                // A thread that died records no more, so its shard is read once more and dropped
+                if (shard.isRetired()) {
+                    retired.add(shard);
+                    live.remove();
+                }
+            }
+            add(retired, counts, histograms);
+            for (Shard shard : shards) {
+                add(shard, counts, histograms);
+            }
+        }
+
+        Map<String, Long> counterValues = new LinkedHashMap<>();
+        for (int counter = 0; counter < counters.length; counter++) {
+            counterValues.put(counters[counter], counts[counter]);
+        }
+        Map<String, LatencyHistogram> timerValues = new LinkedHashMap<>();
+        for (int timer = 0; timer < timers.length; timer++) {
+            long[] merged = histograms[timer] == null ? new long[HISTOGRAM_SIZE] : histograms[timer];
+            long[] buckets = new long[LatencyHistogram.BUCKETS];
+            System.arraycopy(merged, 0, buckets, 0, buckets.length);
+            timerValues.put(timers[timer], new LatencyHistogram(buckets, merged[SUM], merged[MAX]));
+        }
+        return new MetricsSnapshot(counterValues, timerValues);
+    }
+
+    private static void add(Shard shard, long[] counts, long[][] histograms) {
+        for (int counter = 0; counter < counts.length; counter++) {
+            counts[counter] += shard.counters.getOpaque(counter);
+        }
+        for (int timer = 0; timer < histograms.length; timer++) {
+            AtomicLongArray histogram = shard.histograms.getAcquire(timer);
+            if (histogram == null) {
+                continue;
+            }
+            if (histograms[timer] == null) {
+                histograms[timer] = new long[HISTOGRAM_SIZE];
+            }
+            long[] merged = histograms[timer];
+            for (int slot = 0; slot < MAX; slot++) {
+                merged[slot] += histogram.getOpaque(slot);
+            }
+            merged[MAX] = Math.max(merged[MAX], histogram.getOpaque(MAX));
+        }
+    }
+
+    /**
+     * Shows the metrics over JMX as {@value #OBJECT_NAME}; does nothing if
+     * they are shown already. Left to the application, since starting the
+     * platform MBean server costs more than a dealer that only deals needs.
+     */
+    public static void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new MBean(), new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Shown already
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register " + OBJECT_NAME, e);
+        }
+    }
+
+    static void add(int counter, long amount) {
+        AtomicLongArray counters = SHARD.get().counters;
+        counters.setOpaque(counter, counters.getPlain(counter) + amount);
+    }
+
+    static void record(int timer, long nanos) {
+        SHARD.get().record(timer, nanos);
+    }
+
+    /**
+     * @return whether the calling thread's turn to be sampled has come
+     */
+    static boolean sample() {
+        Shard shard = SHARD.get();
+        if (--shard.untilSample > 0) {
+            return false;
+        }
+        shard.untilSample = sampleInterval;
+        return true;
+    }
+
+    /**
+     * One thread's metrics; only that thread writes them.
+     */
+    private static final class Shard {
+        final AtomicLongArray counters = new AtomicLongArray(MAX_COUNTERS);
+        // Created on a timer's first record, most threads only ever use a few
+        final AtomicReferenceArray<AtomicLongArray> histograms = new AtomicReferenceArray<>(MAX_TIMERS);
+        // Weak, so a shard does not keep its thread from being collected
+        final WeakReference<Thread> owner;
+        // The first call is sampled, so even a short run times something
+        int untilSample = 1;
+
+        Shard(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+
+        /**
+         * @return whether the thread that records here has died
+         */
+        boolean isRetired() {
+            Thread thread = owner.get();
+            return thread == null || !thread.isAlive();
+        }
+
+        /**
+         * Adds in what another shard recorded.
+         */
+        void add(Shard shard) {
+            for (int counter = 0; counter < MAX_COUNTERS; counter++) {
+                counters.setOpaque(counter, counters.getPlain(counter) + shard.counters.getOpaque(counter));
+            }
+            for (int timer = 0; timer < MAX_TIMERS; timer++) {
+                AtomicLongArray from = shard.histograms.getAcquire(timer);
+                if (from == null) {
+                    continue;
+                }
+                AtomicLongArray histogram = histogram(timer);
+                for (int slot = 0; slot < MAX; slot++) {
+                    histogram.setOpaque(slot, histogram.getPlain(slot) + from.getOpaque(slot));
+                }
+                histogram.setOpaque(MAX, Math.max(histogram.getPlain(MAX), from.getOpaque(MAX)));
+            }
+        }
+
+        void record(int timer, long nanos) {
+            AtomicLongArray histogram = histogram(timer);
+            long value = Math.min(Math.max(nanos, 0), LatencyHistogram.MAX_VALUE);
+            int bucket = LatencyHistogram.bucketOf(value);
+            histogram.setOpaque(bucket, histogram.getPlain(bucket) + 1);
+            histogram.setOpaque(SUM, histogram.getPlain(SUM) + value);
+            if (value > histogram.getPlain(MAX)) {
+                histogram.setOpaque(MAX, value);
+            }
+        }
+
+        private AtomicLongArray histogram(int timer) {
+            AtomicLongArray histogram = histograms.getPlain(timer);
+            if (histogram == null) {
+                histogram = new AtomicLongArray(HISTOGRAM_SIZE);
+                histograms.setRelease(timer, histogram);
+            }
+            return histogram;
+        }
+    }
+
+    private static final class MBean implements MetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return Metrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            Metrics.setEnabled(enabled);
+        }
+
+        @Override
+        public int getSampleInterval() {
+            return Metrics.getSampleInterval();
+        }
+
+        @Override
+        public void setSampleInterval(int interval) {
+            Metrics.setSampleInterval(interval);
+        }
+
+        @Override
+        public Map<String, Long> getCounters() {
+            return snapshot().getCounters();
+        }
+
+        @Override
+        public Map<String, LatencyHistogram.Summary> getTimers() {
+            Map<String, LatencyHistogram.Summary> summaries = new LinkedHashMap<>();
+            snapshot().getTimers().forEach((name, histogram) -> summaries.put(name, histogram.getSummary()));
+            return summaries;
+        }
+    }
+}
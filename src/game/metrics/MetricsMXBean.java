@@ -0,0 +1,23 @@
+package game.metrics;
+
+import java.util.Map;
+
+/**
+ * The {@link Metrics} as JMX shows them, read fresh on every call.
+ */
+public interface MetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    int getSampleInterval();
+
+    void setSampleInterval(int interval);
+
+    Map<String, Long> getCounters();
+
+    /**
+     * @return latency figures of every timer, in nanoseconds
+     */
+    Map<String, LatencyHistogram.Summary> getTimers();
+}
@@ -0,0 +1,63 @@
+package game.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Every counter and timer as {@link Metrics#snapshot()} read them, in the
+ * order they were registered. Counts only grow, so what happened between
+ * two snapshots is the later {@link #minus} the earlier.
+ */
+public final class MetricsSnapshot {
+    private static final LatencyHistogram EMPTY = new LatencyHistogram(new long[LatencyHistogram.BUCKETS], 0, 0);
+
+    private final Map<String, Long> counters;
+    private final Map<String, LatencyHistogram> timers;
+
+    MetricsSnapshot(Map<String, Long> counters, Map<String, LatencyHistogram> timers) {
+        this.counters = Collections.unmodifiableMap(counters);
+        this.timers = Collections.unmodifiableMap(timers);
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public Map<String, LatencyHistogram> getTimers() {
+        return timers;
+    }
+
+    /**
+     * @return the count, 0 for a counter not registered
+     */
+    public long getCount(String counter) {
+        return counters.getOrDefault(counter, 0L);
+    }
+
+    /**
+     * @return the latencies, empty for a timer not registered
+     */
+    public LatencyHistogram getTimer(String timer) {
+        return timers.getOrDefault(timer, EMPTY);
+    }
+
+    /**
+     * @return what was recorded since the earlier snapshot
+     */
+    public MetricsSnapshot minus(MetricsSnapshot earlier) {
+        Map<String, Long> counterDifferences = new LinkedHashMap<>();
+        counters.forEach((name, count) -> counterDifferences.put(name, count - earlier.getCount(name)));
+        Map<String, LatencyHistogram> timerDifferences = new LinkedHashMap<>();
+        timers.forEach((name, histogram) -> timerDifferences.put(name, histogram.minus(earlier.getTimer(name))));
+        return new MetricsSnapshot(counterDifferences, timerDifferences);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        counters.forEach((name, count) -> report.append(name).append(": ").append(count).append('\n'));
+        timers.forEach((name, histogram) -> report.append(name).append(": ").append(histogram).append('\n'));
+        return report.toString();
+    }
+}
@@ -0,0 +1,67 @@
+package game.metrics;
+
+/**
+ * Latencies of an operation, such as a street, kept in a {@link LatencyHistogram}.
+ * Get one from {@link Metrics#timer}, then
+ * <pre>
+ * long start = TIMER.start();
+ * ...
+ * TIMER.stop(start);
+ * </pre>
+ * Reading the clock costs more than recording, so operations timed one
+ * after the other pass the time one stopped at on as the next one's start,
+ * and operations run too often to time every one start with {@link #sample()}.
+ * While metrics are off, or a call is not sampled, the clock is not read and
+ * nothing is recorded.
+ */
+public final class Timer {
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private final String name;
+    private final int index;
+
+    Timer(String name, int index) {
+        this.name = name;
+        this.index = index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the time to pass to {@link #stop}
+     */
+    public long start() {
+        return Metrics.isEnabled() ? System.nanoTime() : NOT_STARTED;
+    }
+
+    /**
+     * Starts timing one call in every {@link Metrics#getSampleInterval()} a thread makes.
+     *
+     * @return the time to pass to {@link #stop}
+     */
+    public long sample() {
+        return Metrics.isEnabled() && Metrics.sample() ? System.nanoTime() : NOT_STARTED;
+    }
+
+    /**
+     * Records the time since the start.
+     *
+     * @return the time it stopped at, to start whatever is timed next
+     */
+    public long stop(long start) {
+        if (start == NOT_STARTED) {
+            return NOT_STARTED;
+        }
+        long now = System.nanoTime();
+        record(now - start);
+        return now;
+    }
+
+    public void record(long nanos) {
+        if (Metrics.isEnabled()) {
+            Metrics.record(index, nanos);
+        }
+    }
+}
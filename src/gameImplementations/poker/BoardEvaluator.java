@@ -0,0 +1,113 @@
+package gameImplementations.poker;
+
+import deck.Card;
+import deck.CardId;
+import deck.CardSet;
+
+import java.util.Collection;
+
+/**
+ * Evaluates many hands against the same public cards. The board's packed rank
+ * counts and suit rank masks are computed once by {@link #setBoard(long)};
+ * each hand then only adds its own cards before the {@link HandEvaluator}
+ * lookup, and the flush check is skipped entirely when no suit on the board
+ * can still reach five cards.
+ *
+ * Instances are mutable and not thread safe; reuse one per thread.
+ */
+public final class BoardEvaluator {
+    private static final int FLUSH_SIZE = 5;
+    private static final int RANK_MASK = (1 << CardId.RANKS) - 1;
+
+    private long boardMask;
+    private long rankCounts;
+    private long suitRanks;
+    private int count;
+    private boolean flushPossible;
+
+    public BoardEvaluator() {
+        setBoard(CardSet.EMPTY);
+    }
+
+    public BoardEvaluator(long boardMask) {
+        setBoard(boardMask);
+    }
+
+    public BoardEvaluator(Collection<Card> board) {
+        setBoard(CardSet.maskOf(board));
+    }
+
+    public BoardEvaluator setBoard(long boardMask) {
+        this.boardMask = boardMask;
+        rankCounts = 0;
+        suitRanks = 0;
+        count = 0;
+        for (long rest = boardMask; rest != 0; rest &= rest - 1) {
+            int id = Long.numberOfTrailingZeros(rest);
+            rankCounts += HandEvaluator.rankCountOf(id);
+            suitRanks |= HandEvaluator.suitRankOf(id);
+            count++;
+        }
+        int maxSuited = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += HandEvaluator.SUIT_LANE_BITS) {
+            maxSuited = Math.max(maxSuited, Integer.bitCount((int) (suitRanks >>> shift) & RANK_MASK));
+        }
+        flushPossible = maxSuited + (HandEvaluator.MAX_CARDS - count) >= FLUSH_SIZE;
+        return this;
+    }
+
+    public long getBoardMask() {
+        return boardMask;
+    }
+
+    /**
+     * @param holeMask the hand's own cards, none of them on the board
+     * @return the {@link HandEvaluator} rank of the hand together with the board
+     */
+    public int evaluate(long holeMask) {
+        long handRankCounts = rankCounts;
+        long handSuitRanks = suitRanks;
+        int handCount = count;
+        for (long rest = holeMask; rest != 0; rest &= rest - 1) {
+            int id = Long.numberOfTrailingZeros(rest);
+            handRankCounts += HandEvaluator.rankCountOf(id);
+            handSuitRanks |= HandEvaluator.suitRankOf(id);
+            handCount++;
+        }
+        return lookup(handRankCounts, handSuitRanks, handCount);
+    }
+
+    /**
+     * Evaluates a hand given as its own packed state, see {@link HandEvaluator}.
+     */
+    public int evaluate(long holeRankCounts, long holeSuitRanks, int holeCount) {
+        return lookup(rankCounts + holeRankCounts, suitRanks | holeSuitRanks, count + holeCount);
+    }
+
+    /**
+     * @return the ranks of the hands, in the same order
+     */
+    public int[] evaluate(long[] holeMasks) {
+        int[] ranks = new int[holeMasks.length];
+        evaluate(holeMasks, ranks);
+        return ranks;
+    }
+
+    /**
+     * Writes the rank of {@code holeMasks[i]} to {@code ranks[i]}.
+     */
+    public void evaluate(long[] holeMasks, int[] ranks) {
+        for (int i = 0; i < holeMasks.length; i++) {
+            ranks[i] = evaluate(holeMasks[i]);
+        }
+    }
+
+    private int lookup(long handRankCounts, long handSuitRanks, int handCount) {
+        if (handCount > HandEvaluator.MAX_CARDS) {
+            throw new IllegalArgumentException("Cannot evaluate " + handCount + " cards, at most " + HandEvaluator.MAX_CARDS);
+        }
+        return flushPossible ?
+                HandEvaluator.evaluate(handRankCounts, handSuitRanks, handCount) :
+                HandEvaluator.evaluateRanks(handRankCounts, handCount);
+    }
+}
@@ -0,0 +1,164 @@
+package gameImplementations.poker;
+
+import deck.CardId;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Describes a {@link HandEvaluator} rank in words, e.g. "Two Pairs of A and Q
+ * with 4 kicker", straight from the rank's category and kickers.
+ *
+ * Every category has a template, compiled once into literal characters and
+ * a few control characters that stand for kicker slots. Describing a hand
+ * walks its template and appends to the caller's {@link StringBuilder} or
+ * {@link Appendable}, so nothing is allocated per hand. Complete hands read
+ * exactly as {@link PokerHandAnalyzer#getDescription(double)} has them;
+ * hands of fewer than five cards leave out the kickers they don't have.
+ */
+public final class HandDescription {
+    private static final String RANK_SYMBOLS = "23456789TJQKA";
+    private static final int ROYAL_FLUSH = PokerHandAnalyzer.Strength.ROYAL_FLUSH.getStrength();
+    private static final int STRAIGHT_LENGTH = 5;
+
+    // Control characters of a compiled template
+    private static final char SLOT = 0x00;       // + slot: that kicker
+    private static final char KICKERS_FROM = 0x08; // + slot: every kicker from that slot on
+    private static final char STRAIGHT = 0x10;   // the five cards of the straight topped by slot 0
+    private static final char IF_KICKER = 0x18;  // + slot: what follows up to END is left out without that kicker
+    private static final char END = 0x1F;
+
+    private static final String[] TEMPLATES = new String[PokerHandAnalyzer.Strength.values().length];
+
+    static {
+        template(PokerHandAnalyzer.Strength.SINGLE, "%*0");
+        template(PokerHandAnalyzer.Strength.PAIR, "of %0[ with %*1 kicker]");
+        template(PokerHandAnalyzer.Strength.TWO_PAIRS, "of %0 and %1[ with %*2 kicker]");
+        template(PokerHandAnalyzer.Strength.TRIO, "of %0[ with %*1 kicker]");
+        template(PokerHandAnalyzer.Strength.STRAIGHT, "%0 high");
+        template(PokerHandAnalyzer.Strength.FLUSH, "%*0 kicker");
+        template(PokerHandAnalyzer.Strength.FULL_HOUSE, "%0 full of %1");
+        template(PokerHandAnalyzer.Strength.QUADS, "%0 %0 %0 %0[ %*1] kicker");
+        template(PokerHandAnalyzer.Strength.STRAIGHT_FLUSH, "%s kicker");
+        template(PokerHandAnalyzer.Strength.ROYAL_FLUSH, "%s kicker");
+    }
+
+    private HandDescription() {
+    }
+
+    public static String describe(int rank) {
+        return describe(rank, new StringBuilder(48)).toString();
+    }
+
+    public static StringBuilder describe(int rank, StringBuilder out) {
+        try {
+            describe(rank, (Appendable) out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+        return out;
+    }
+
+    /**
+     * @param rank a {@link HandEvaluator} rank
+     */
+    public static <A extends Appendable> A describe(int rank, A out) throws IOException {
+        int category = HandEvaluator.getCategory(rank);
+        if (category == PokerHandAnalyzer.Strength.STRAIGHT_FLUSH.getStrength()
+                && HandEvaluator.getKicker(rank, 0) == CardId.RANKS - 1) {
+            category = ROYAL_FLUSH;
+        }
+        String template = TEMPLATES[category];
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c >= ' ') {
+                int literal = i;
+                while (i + 1 < template.length() && template.charAt(i + 1) >= ' ') {
+                    i++;
+                }
+                out.append(template, literal, i + 1);
+            } else if (c >= END) {
+                // End of a group that was written out
+            } else if (c >= IF_KICKER) {
+                if (HandEvaluator.getKicker(rank, c - IF_KICKER) < 0) {
+                    while (template.charAt(i) != END) {
+                        i++;
+                    }
+                }
+            } else if (c >= STRAIGHT) {
+                appendStraight(HandEvaluator.getKicker(rank, 0), out);
+            } else if (c >= KICKERS_FROM) {
+                appendKickers(rank, c - KICKERS_FROM, out);
+            } else {
+                int kicker = HandEvaluator.getKicker(rank, c - SLOT);
+                if (kicker >= 0) {
+                    out.append(RANK_SYMBOLS.charAt(kicker));
+                }
+            }
+        }
+        return out;
+    }
+
+    private static void appendKickers(int rank, int from, Appendable out) throws IOException {
+        for (int slot = from; slot < HandEvaluator.KICKERS; slot++) {
+            int kicker = HandEvaluator.getKicker(rank, slot);
+            if (kicker < 0) {
+                break;
+            }
+            if (slot > from) {
+                out.append(' ');
+            }
+            out.append(RANK_SYMBOLS.charAt(kicker));
+        }
+    }
+
+    private static void appendStraight(int high, Appendable out) throws IOException {
+        for (int i = 0; i < STRAIGHT_LENGTH; i++) {
+            if (i > 0) {
+                out.append(' ');
+            }
+            // The wheel ends on the ace playing low
+            out.append(RANK_SYMBOLS.charAt((high - i + CardId.RANKS) % CardId.RANKS));
+        }
+    }
+
+    ////////////////////////////////////////
+    // Template compilation
+    ////////////////////////////////////////
+
+    private static void template(PokerHandAnalyzer.Strength category, String text) {
+        String pattern = category.getHandName() + " " + text;
+        StringBuilder compiled = new StringBuilder(pattern.length());
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '%') {
+                char next = pattern.charAt(++i);
+                if (next == 's') {
+                    compiled.append(STRAIGHT);
+                } else if (next == '*') {
+                    compiled.append((char) (KICKERS_FROM + slot(pattern.charAt(++i))));
+                } else {
+                    compiled.append((char) (SLOT + slot(next)));
+                }
+            } else if (c == '[') {
+                // The group is kept if its first kicker is there
+                int kicker = pattern.indexOf('%', i);
+                char slot = pattern.charAt(kicker + 1) == '*' ? pattern.charAt(kicker + 2) : pattern.charAt(kicker + 1);
+                compiled.append((char) (IF_KICKER + slot(slot)));
+            } else if (c == ']') {
+                compiled.append(END);
+            } else {
+                compiled.append(c);
+            }
+        }
+        TEMPLATES[category.getStrength()] = compiled.toString();
+    }
+
+    private static int slot(char digit) {
+        int slot = digit - '0';
+        if (slot < 0 || slot >= HandEvaluator.KICKERS) {
+            throw new IllegalArgumentException("No kicker slot " + digit);
+        }
+        return slot;
+    }
+}
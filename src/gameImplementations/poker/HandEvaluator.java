@@ -0,0 +1,340 @@
+package gameImplementations.poker;
+
+import deck.Card;
+import deck.CardId;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Table driven poker hand evaluator. Any combination of up to seven distinct
+ * cards maps to a dense, totally ordered {@code int} rank (higher is better)
+ * in a handful of array lookups:
+ * <ul>
+ *     <li>if five or more cards share a suit, the 13 bit rank mask of that suit
+ *     indexes the flush table directly;</li>
+ *     <li>otherwise only the rank multiset matters, and its per-rank counts are
+ *     perfect hashed by {@link RankMultisets} into the non-flush table.</li>
+ * </ul>
+ * Ranks are dense over every hand class reachable from 0..7 cards; complete
+ * five card hands occupy 7,462 of them. Rank 0 is never returned.
+ *
+ * A hand can also be evaluated from its packed state: per-rank counts in
+ * {@link #RANK_COUNT_BITS} bit digits and per-suit rank masks in
+ * {@link #SUIT_LANE_BITS} bit lanes, which callers may maintain incrementally.
+ */
+public final class HandEvaluator {
+    public static final int MAX_CARDS = 7;
+    public static final int RANK_COUNT_BITS = 3;
+    public static final int SUIT_LANE_BITS = 16;
+    public static final int KICKERS = 5;
+
+    private static final int FLUSH_SIZE = 5;
+    private static final int STRAIGHT_LENGTH = 5;
+    private static final int MAX_RANK_COUNT = 4;
+    private static final int RANK_MASK = (1 << CardId.RANKS) - 1;
+
+    private static final int CATEGORY_SHIFT = 20;
+    private static final int KICKER_BITS = 4;
+
+    // Built on the first evaluation rather than when the class loads, so that
+    // packing cards with rankCountOf and suitRankOf costs nothing up front
+    private static final class Tables {
+        static final char[] FLUSH = new char[1 << CardId.RANKS];
+        static final char[] NON_FLUSH;
+        static final int[] RAW_BY_RANK;
+
+        static {
+            // Raw values order hands correctly but sparsely; collect them all and densify
+            int[] rawNonFlush = new int[RankMultisets.size()];
+            fillNonFlush(rawNonFlush, new int[CardId.RANKS], 0, 0);
+            int[] rawFlush = new int[FLUSH.length];
+            for (int ranks = 0; ranks <= RANK_MASK; ranks++) {
+                if (Integer.bitCount(ranks) >= FLUSH_SIZE) {
+                    rawFlush[ranks] = rawFlush(ranks);
+                }
+            }
+
+            int[] all = Arrays.copyOf(rawNonFlush, rawNonFlush.length + rawFlush.length);
+            System.arraycopy(rawFlush, 0, all, rawNonFlush.length, rawFlush.length);
+            Arrays.sort(all);
+            int distinct = 0;
+            for (int raw : all) {
+                if (distinct == 0 || all[distinct - 1] != raw) {
+                    all[distinct++] = raw;
+                }
+            }
+            RAW_BY_RANK = new int[distinct + 1];
+            System.arraycopy(all, 0, RAW_BY_RANK, 1, distinct);
+
+            NON_FLUSH = new char[rawNonFlush.length];
+            for (int i = 0; i < rawNonFlush.length; i++) {
+                NON_FLUSH[i] = (char) toRank(rawNonFlush[i]);
+            }
+            for (int ranks = 0; ranks <= RANK_MASK; ranks++) {
+                if (Integer.bitCount(ranks) >= FLUSH_SIZE) {
+                    FLUSH[ranks] = (char) toRank(rawFlush[ranks]);
+                }
+            }
+        }
+    }
+
+    private HandEvaluator() {
+    }
+
+    ////////////////////////////////////////
+    // Evaluation
+    ////////////////////////////////////////
+
+    public static int evaluate(long cardMask) {
+        long rankCounts = 0;
+        long suitRanks = 0;
+        int count = 0;
+        for (long rest = cardMask; rest != 0; rest &= rest - 1) {
+            int id = Long.numberOfTrailingZeros(rest);
+            rankCounts += rankCountOf(id);
+            suitRanks |= suitRankOf(id);
+            count++;
+        }
+        checkCount(count);
+        return evaluate(rankCounts, suitRanks, count);
+    }
+
+    /**
+     * @param ids   distinct card ids, see {@link CardId}
+     * @param count number of ids to read from the start of the array
+     */
+    public static int evaluate(int[] ids, int count) {
+        checkCount(count);
+        long rankCounts = 0;
+        long suitRanks = 0;
+        for (int i = 0; i < count; i++) {
+            rankCounts += rankCountOf(ids[i]);
+            suitRanks |= suitRankOf(ids[i]);
+        }
+        return evaluate(rankCounts, suitRanks, count);
+    }
+
+    /**
+     * Unknown cards are ignored.
+     */
+    @SafeVarargs
+    public static int evaluate(Collection<Card>... cardCols) {
+        long rankCounts = 0;
+        long suitRanks = 0;
+        int count = 0;
+        for (Collection<Card> cardCol : cardCols) {
+            for (Card card : cardCol) {
+                int id = CardId.of(card);
+                if (id != CardId.NONE) {
+                    rankCounts += rankCountOf(id);
+                    suitRanks |= suitRankOf(id);
+                    count++;
+                }
+            }
+        }
+        checkCount(count);
+        return evaluate(rankCounts, suitRanks, count);
+    }
+
+    /**
+     * Evaluates a hand from its packed state.
+     *
+     * @param rankCounts sum of {@link #rankCountOf(int)} over the cards
+     * @param suitRanks  union of {@link #suitRankOf(int)} over the cards
+     * @param count      number of cards, at most {@link #MAX_CARDS}
+     */
+    public static int evaluate(long rankCounts, long suitRanks, int count) {
+        if (count >= FLUSH_SIZE) {
+            for (int shift = 0; shift < Long.SIZE; shift += SUIT_LANE_BITS) {
+                int ranks = (int) (suitRanks >>> shift) & RANK_MASK;
+                if (Integer.bitCount(ranks) >= FLUSH_SIZE) {
+                    return Tables.FLUSH[ranks];
+                }
+            }
+        }
+        return Tables.NON_FLUSH[RankMultisets.index(rankCounts, count)];
+    }
+
+    /**
+     * Evaluates a hand known not to hold five cards of one suit from its packed rank counts.
+     */
+    public static int evaluateRanks(long rankCounts, int count) {
+        return Tables.NON_FLUSH[RankMultisets.index(rankCounts, count)];
+    }
+
+    /**
+     * @return the card's contribution to a packed rank count
+     */
+    public static long rankCountOf(int id) {
+        return 1L << (CardId.rank(id) * RANK_COUNT_BITS);
+    }
+
+    /**
+     * @return the card's bit in a packed per-suit rank mask
+     */
+    public static long suitRankOf(int id) {
+        return 1L << (CardId.suit(id) * SUIT_LANE_BITS + CardId.rank(id));
+    }
+
+    /**
+     * @return the hand category of a rank, as numbered by {@link PokerHandAnalyzer.Strength}
+     * (royal flushes are reported as straight flushes)
+     */
+    public static int getCategory(int rank) {
+        return Tables.RAW_BY_RANK[rank] >>> CATEGORY_SHIFT;
+    }
+
+    /**
+     * @param slot 0 for the rank that decides the category (the pair, the set,
+     *             the straight's top card), then each following card down to
+     *             {@link #KICKERS} - 1
+     * @return the card rank index in the slot, as in {@link CardId}, or -1 if
+     * the hand has too few cards to fill it
+     */
+    public static int getKicker(int rank, int slot) {
+        return (Tables.RAW_BY_RANK[rank] >>> (KICKER_BITS * (KICKERS - 1 - slot)) & ((1 << KICKER_BITS) - 1)) - 1;
+    }
+
+    /**
+     * @return the highest rank this evaluator produces
+     */
+    public static int getMaxRank() {
+        return Tables.RAW_BY_RANK.length - 1;
+    }
+
+    private static void checkCount(int count) {
+        if (count > MAX_CARDS) {
+            throw new IllegalArgumentException("Cannot evaluate " + count + " cards, at most " + MAX_CARDS);
+        }
+    }
+
+    ////////////////////////////////////////
+    // Table generation
+    ////////////////////////////////////////
+
+    private static void fillNonFlush(int[] raws, int[] counts, int rank, int total) {
+        if (rank == CardId.RANKS) {
+            long rankCounts = 0;
+            for (int r = 0; r < CardId.RANKS; r++) {
+                rankCounts |= (long) counts[r] << (r * RANK_COUNT_BITS);
+            }
+            raws[RankMultisets.index(rankCounts, total)] = rawNonFlush(counts);
+            return;
+        }
+        for (int count = 0; count <= MAX_RANK_COUNT && total + count <= MAX_CARDS; count++) {
+            counts[rank] = count;
+            fillNonFlush(raws, counts, rank + 1, total + count);
+        }
+        counts[rank] = 0;
+    }
+
+    private static int toRank(int raw) {
+        return Arrays.binarySearch(Tables.RAW_BY_RANK, 1, Tables.RAW_BY_RANK.length, raw);
+    }
+
+    private static int rawFlush(int ranks) {
+        int straightHigh = straightHigh(ranks);
+        if (straightHigh >= 0) {
+            return rawStraight(PokerHandAnalyzer.Strength.STRAIGHT_FLUSH, straightHigh);
+        }
+        return rawTopRanks(PokerHandAnalyzer.Strength.FLUSH, ranks);
+    }
+
+    private static int rawNonFlush(int[] counts) {
+        int present = 0;
+        int quads = -1, trips = -1, secondTrips = -1, pair = -1, secondPair = -1;
+        for (int rank = CardId.RANKS - 1; rank >= 0; rank--) {
+            if (counts[rank] > 0) present |= 1 << rank;
+            switch (counts[rank]) {
+                case 4:
+                    if (quads < 0) quads = rank;
+                    break;
+                case 3:
+                    if (trips < 0) trips = rank; else if (secondTrips < 0) secondTrips = rank;
+                    break;
+                case 2:
+                    if (pair < 0) pair = rank; else if (secondPair < 0) secondPair = rank;
+                    break;
+            }
+        }
+
+        if (quads >= 0) {
+            return raw(PokerHandAnalyzer.Strength.QUADS, quads, present & ~(1 << quads), 1);
+        }
+        if (trips >= 0 && (secondTrips >= 0 || pair >= 0)) {
+            return raw(PokerHandAnalyzer.Strength.FULL_HOUSE, trips, Math.max(secondTrips, pair));
+        }
+        int straightHigh = straightHigh(present);
+        if (straightHigh >= 0) {
+            return rawStraight(PokerHandAnalyzer.Strength.STRAIGHT, straightHigh);
+        }
+        if (trips >= 0) {
+            return raw(PokerHandAnalyzer.Strength.TRIO, trips, present & ~(1 << trips), 2);
+        }
+        if (secondPair >= 0) {
+            int rest = present & ~(1 << pair) & ~(1 << secondPair);
+            return raw(PokerHandAnalyzer.Strength.TWO_PAIRS, pair, secondPair, rest, 1);
+        }
+        if (pair >= 0) {
+            return raw(PokerHandAnalyzer.Strength.PAIR, pair, present & ~(1 << pair), 3);
+        }
+        return rawTopRanks(PokerHandAnalyzer.Strength.SINGLE, present);
+    }
+
+    /**
+     * @return the rank index of the highest card of the best straight in the mask, or -1
+     */
+    private static int straightHigh(int ranks) {
+        // Bit 0 is the ace playing low, bit r + 1 is rank r
+        int extended = (ranks << 1) | (ranks >>> (CardId.RANKS - 1));
+        int window = (1 << STRAIGHT_LENGTH) - 1;
+        for (int high = CardId.RANKS; high >= STRAIGHT_LENGTH - 1; high--) {
+            if (((extended >>> (high - STRAIGHT_LENGTH + 1)) & window) == window) {
+                return high - 1;
+            }
+        }
+        return -1;
+    }
+
+    private static int rawStraight(PokerHandAnalyzer.Strength category, int high) {
+        return raw(category, high, 0, 0);
+    }
+
+    private static int raw(PokerHandAnalyzer.Strength category, int first, int second) {
+        return pushKickers(pushKicker(pushKicker(category.getStrength(), first), second), 0, 0, 3);
+    }
+
+    private static int rawTopRanks(PokerHandAnalyzer.Strength category, int ranks) {
+        return pushKickers(category.getStrength(), ranks, 5, 0);
+    }
+
+    private static int raw(PokerHandAnalyzer.Strength category, int first, int kickers, int kickerCount) {
+        return pushKickers(pushKicker(category.getStrength(), first), kickers, kickerCount, 4 - kickerCount);
+    }
+
+    private static int raw(PokerHandAnalyzer.Strength category, int first, int second, int kickers, int kickerCount) {
+        return pushKickers(pushKicker(pushKicker(category.getStrength(), first), second), kickers, kickerCount, 3 - kickerCount);
+    }
+
+    /**
+     * Appends the highest {@code kickerCount} ranks of the mask, then {@code padding} empty slots.
+     */
+    private static int pushKickers(int raw, int ranks, int kickerCount, int padding) {
+        int pushed = 0;
+        for (int rank = CardId.RANKS - 1; rank >= 0 && pushed < kickerCount; rank--) {
+            if ((ranks & (1 << rank)) != 0) {
+                raw = pushKicker(raw, rank);
+                pushed++;
+            }
+        }
+        for (int i = pushed; i < kickerCount + padding; i++) {
+            raw <<= KICKER_BITS;
+        }
+        return raw;
+    }
+
+    private static int pushKicker(int raw, int rank) {
+        return raw << KICKER_BITS | (rank + 1);
+    }
+}
@@ -0,0 +1,166 @@
+package gameImplementations.poker;
+
+import deck.CardSet;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of hand strengths keyed by the hand's {@link CardSet} mask,
+ * safe to share between threads without locking.
+ *
+ * Every slot is two longs side by side, the strength's bits and the mask
+ * xor those bits. A reader accepts a slot only if the two xor back to the
+ * mask it looks for, so a slot another thread is halfway through replacing
+ * reads as a miss rather than a wrong strength; there is nothing to lock.
+ * Slots are grouped in buckets of {@link #WAYS}, and the {@link Eviction}
+ * policy decides which slot of a full bucket a new strength replaces.
+ */
+public final class HandStrengthCache {
+    public static final int WAYS = 4;
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    public static final int MAX_CAPACITY = 1 << 29;
+
+    public enum Eviction {
+        /** One slot per mask; a new strength replaces whatever is in it */
+        DIRECT,
+        /** Replaces the first slot of the bucket not read since the clock hand last passed it */
+        CLOCK,
+        /** Only fills empty slots; once a bucket is full it keeps what it has */
+        NONE
+    }
+
+    private final Eviction eviction;
+    private final int ways;
+    private final int bucketMask;
+    // Slot i is check at 2i, strength bits at 2i + 1
+    private final AtomicLongArray slots;
+    // Racy on purpose: a lost update only makes eviction a little less exact
+    private final byte[] referenced;
+    private final byte[] clockHands;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public HandStrengthCache() {
+        this(DEFAULT_CAPACITY, Eviction.CLOCK);
+    }
+
+    /**
+     * @param capacity number of strengths kept, rounded up to a power of two
+     */
+    public HandStrengthCache(int capacity, Eviction eviction) {
+        if (capacity < WAYS || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between " + WAYS + " and " + MAX_CAPACITY + ", got " + capacity);
+        }
+        capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.eviction = eviction;
+        this.ways = eviction == Eviction.DIRECT ? 1 : WAYS;
+        this.bucketMask = capacity / ways - 1;
+        slots = new AtomicLongArray(capacity * 2);
+        referenced = new byte[capacity];
+        clockHands = new byte[capacity / ways];
+    }
+
+    /**
+     * @return the cached strength of the cards, or NaN if it is not cached
+     */
+    public double get(long mask) {
+        if (mask != CardSet.EMPTY) {
+            int first = bucketOf(mask) * ways;
+            for (int slot = first; slot < first + ways; slot++) {
+                long strength = slots.getOpaque(2 * slot + 1);
+                if ((slots.getOpaque(2 * slot) ^ strength) == mask) {
+                    referenced[slot] = 1;
+                    hits.increment();
+                    return Double.longBitsToDouble(strength);
+                }
+            }
+        }
+        misses.increment();
+        return Double.NaN;
+    }
+
+    public void put(long mask, double strength) {
+        if (mask == CardSet.EMPTY) {
+            return;
+        }
+        int bucket = bucketOf(mask);
+        int slot = victim(bucket);
+        if (slot >= 0) {
+            long bits = Double.doubleToRawLongBits(strength);
+            slots.setOpaque(2 * slot + 1, bits);
+            slots.setOpaque(2 * slot, mask ^ bits);
+            referenced[slot] = 0;
+        }
+    }
+
+    private int victim(int bucket) {
+        int first = bucket * ways;
+        for (int slot = first; slot < first + ways; slot++) {
+            if (slots.getOpaque(2 * slot) == 0) {
+                return slot;
+            }
+        }
+        switch (eviction) {
+            case DIRECT:
+                return first;
+            case CLOCK:
+                // Every slot passed loses its reference, so one turn round the bucket
+                // is enough unless other threads keep reading it
+                int hand = clockHands[bucket];
+                for (int step = 0; step < ways && referenced[first + hand] != 0; step++) {
+                    referenced[first + hand] = 0;
+                    hand = (hand + 1) % ways;
+                }
+                clockHands[bucket] = (byte) ((hand + 1) % ways);
+                return first + hand;
+            default:
+                return -1;
+        }
+    }
+
+    private int bucketOf(long mask) {
+        long h = mask * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32) & bucketMask;
+    }
+
+    /**
+     * Empties the cache and its counters. Strengths put by other threads
+     * while it clears may survive.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.setOpaque(i, 0);
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    public int getCapacity() {
+        return referenced.length;
+    }
+
+    public Eviction getEviction() {
+        return eviction;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return lookups == 0 ? 0 : hits / (double) lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s cache of %d strengths, %d hits, %d misses (%.1f%% hits)",
+                eviction, getCapacity(), getHits(), getMisses(), getHitRate() * 100);
+    }
+}
@@ -3,9 +3,14 @@ package gameImplementations.poker;
 import deck.Card;
 import deck.Card.Rank;
 import deck.Card.Suit;
+import deck.SuitIsomorphism;
+import game.metrics.Counter;
+import game.metrics.Metrics;
 import gameImplementations.poker.texasHoldem.HoldemHand;
 import participants.Player;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 public class PokerHandAnalyzer {
@@ -43,11 +48,139 @@ public class PokerHandAnalyzer {
 
     }
 
+    /**
+     * How {@link #getStrength(HoldemHand)} computes a strength. All modes return identical values.
+     */
+    public enum Mode {
+        /** Counts ranks and suits into maps and builds the kicker as a string */
+        COLLECTIONS,
+        /** Counts into reused primitive histograms, see {@link StreamingHandAnalyzer} */
+        STREAMING,
+        /**
+         * Reads the strength from the {@link StrengthTable} set with {@link #setStrengthTable};
+         * computes it as {@link #STREAMING} does without a table, or for cards the table cannot take
+         */
+        TABLE
+    }
+
+    private static volatile Mode defaultMode = Mode.COLLECTIONS;
+    private static volatile HandStrengthCache strengthCache;
+    private static volatile StrengthTable strengthTable;
+
+    // Counted, not timed: reading the clock would cost about as much as a cached or table lookup
+    private static final Counter EVALUATIONS = Metrics.counter("strength.evaluations");
+
+    private static final ThreadLocal<StreamingHandAnalyzer> STREAMING_ANALYZER = new ThreadLocal<StreamingHandAnalyzer>() {
+        @Override
+        protected StreamingHandAnalyzer initialValue() {
+            return new StreamingHandAnalyzer();
+        }
+    };
+
+    public static Mode getDefaultMode() {
+        return defaultMode;
+    }
+
+    public static void setDefaultMode(Mode mode) {
+        defaultMode = mode;
+    }
+
+    public static HandStrengthCache getStrengthCache() {
+        return strengthCache;
+    }
+
+    /**
+     * Looks strengths up in the cache before computing them; null, the default, turns caching off.
+     */
+    public static void setStrengthCache(HandStrengthCache cache) {
+        strengthCache = cache;
+    }
+
+    public static StrengthTable getStrengthTable() {
+        return strengthTable;
+    }
+
+    /**
+     * Sets the table {@link Mode#TABLE} reads strengths from; null, the default, computes them instead.
+     */
+    public static void setStrengthTable(StrengthTable table) {
+        strengthTable = table;
+    }
+
+    /**
+     * Opens and sets the table in the file, or clears the table if the file
+     * is missing or unusable, so {@link Mode#TABLE} falls back to computing.
+     *
+     * @return whether the table was set
+     */
+    public static boolean loadStrengthTable(Path path) {
+        StrengthTable table;
+        try {
+            table = StrengthTable.open(path);
+        } catch (IOException e) {
+            table = null;
+        }
+        strengthTable = table;
+        return table != null;
+    }
+
+    /**
+     * @return whether {@link #getStrength(HoldemHand)} reads strengths from the
+     * cache or the table instead of computing them
+     */
+    public static boolean isStrengthShared() {
+        return strengthCache != null || (defaultMode == Mode.TABLE && strengthTable != null);
+    }
+
     public static double getStrength(List<Card> publicCards, HoldemHand hand) {
         return getStrength(new HoldemHand(publicCards, hand.getCards()));
     }
 
     public static double getStrength(HoldemHand hand) {
+        return getStrength(hand, defaultMode);
+    }
+
+    public static double getStrength(HoldemHand hand, Mode mode) {
+        return getStrength(hand, mode, strengthCache);
+    }
+
+    /**
+     * A strength does not depend on which suit is which, so hands that only
+     * differ by renaming suits share one entry of the cache.
+     *
+     * @param cache strengths already computed, or null to always compute
+     */
+    public static double getStrength(HoldemHand hand, Mode mode, HandStrengthCache cache) {
+        EVALUATIONS.increment();
+        long mask = hand.getCardMask();
+        // Cards without an id, or repeated, would not be told apart by the mask
+        if (cache == null || Long.bitCount(mask) != hand.getCardCount()) {
+            return computeStrength(hand, mode);
+        }
+        mask = SuitIsomorphism.canonical(mask);
+        double strength = cache.get(mask);
+        if (Double.isNaN(strength)) {
+            strength = computeStrength(hand, mode);
+            cache.put(mask, strength);
+        }
+        return strength;
+    }
+
+    private static double computeStrength(HoldemHand hand, Mode mode) {
+        if (mode == Mode.TABLE) {
+            StrengthTable table = strengthTable;
+            long mask = hand.getCardMask();
+            // Cards without an id, or repeated, would not be told apart by the mask
+            double strength = table == null || Long.bitCount(mask) != hand.getCardCount() ?
+                    Double.NaN : table.getStrength(mask);
+            return Double.isNaN(strength) ? STREAMING_ANALYZER.get().getStrength(hand.getCards()) : strength;
+        }
+        return mode == Mode.STREAMING ?
+                STREAMING_ANALYZER.get().getStrength(hand.getCards()) :
+                getCollectionsStrength(hand);
+    }
+
+    private static double getCollectionsStrength(HoldemHand hand) {
         // Process hand
         Map<Suit, List<Card>> suitCounter = new HashMap<>();
         Map<Rank, Integer> rankCounter = new TreeMap<>(Collections.reverseOrder());
@@ -226,29 +359,58 @@ public class PokerHandAnalyzer {
         return ranking;
     }
 
-    public static List<Player> rankPlayersByHand(List<Card> holeCards, Set<Player> playersInHand) {
-        // Sort player hand strength from high to low
-        SortedMap<Double, Player> playersByHand = new TreeMap<>(Collections.reverseOrder());
-
-        for (Player player : playersInHand) {
-            playersByHand.put(getStrength(holeCards, (HoldemHand) player.getHand()), player);
+    /**
+     * Ranks the players by their hole cards together with the public cards. Tied players
+     * keep their relative order.
+     */
+    public static List<Player> rankPlayersByHand(List<Card> publicCards, Set<Player> playersInHand) {
+        List<Player> ranking = new ArrayList<>(playersInHand);
+        int[] ranks = getRanks(publicCards, ranking);
+
+        // Sort player hand rank from high to low
+        for (int i = 1; i < ranks.length; i++) {
+            int rank = ranks[i];
+            Player player = ranking.get(i);
+            int j = i - 1;
+            for (; j >= 0 && ranks[j] < rank; j--) {
+                ranks[j + 1] = ranks[j];
+                ranking.set(j + 1, ranking.get(j));
+            }
+            ranks[j + 1] = rank;
+            ranking.set(j + 1, player);
         }
-
-        List<Player> ranking = new ArrayList<>(playersInHand.size());
-        ranking.addAll(playersByHand.values());
         return ranking;
     }
 
-    public static Set<Player> getWinner(List<Card> holeCards, Set<Player> players) {
+    /**
+     * Evaluates every player's hole cards against the shared public cards, counting the
+     * public cards only once.
+     *
+     * @return the players' {@link HandEvaluator} ranks, in list order
+     */
+    public static int[] getRanks(List<Card> publicCards, List<Player> players) {
+        BoardEvaluator board = new BoardEvaluator(publicCards);
+        int[] ranks = new int[players.size()];
+        for (int i = 0; i < ranks.length; i++) {
+            ranks[i] = board.evaluate(((HoldemHand) players.get(i).getHand()).getCardMask());
+        }
+        return ranks;
+    }
+
+    /**
+     * Ranks each player's hole cards together with the public cards using {@link HandEvaluator}.
+     */
+    public static Set<Player> getWinner(List<Card> publicCards, Set<Player> players) {
         Set<Player> winners = new HashSet<>();
-        double maxStrength = 0;
+        BoardEvaluator board = new BoardEvaluator(publicCards);
+        int maxRank = 0;
         for (Player player : players) {
-            double handStrength = player.getHand().getStrength();
-            if (maxStrength < handStrength) {
-                maxStrength = handStrength;
+            int handRank = board.evaluate(((HoldemHand) player.getHand()).getCardMask());
+            if (maxRank < handRank) {
+                maxRank = handRank;
                 winners.clear();
                 winners.add(player);
-            } else if (maxStrength == handStrength) {
+            } else if (maxRank == handRank) {
                 winners.add(player);
             }
         }
@@ -257,14 +419,14 @@ public class PokerHandAnalyzer {
 
     public static Set<Player> getWinner(Map<Player, HoldemHand> hands) {
         Set<Player> winners = new HashSet<>();
-        double maxStrength = 0;
+        int maxRank = 0;
         for (Player player : hands.keySet()) {
-            double handStrength = hands.get(player).getStrength();
-            if (maxStrength < handStrength) {
-                maxStrength = handStrength;
+            int handRank = hands.get(player).getRank();
+            if (maxRank < handRank) {
+                maxRank = handRank;
                 winners.clear();
                 winners.add(player);
-            } else if (maxStrength == handStrength) {
+            } else if (maxRank == handRank) {
                 winners.add(player);
             }
         }
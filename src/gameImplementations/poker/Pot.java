@@ -1,5 +1,6 @@
 package gameImplementations.poker;
 
+import game.Chips;
 import participants.Player;
 
 import java.util.Collection;
@@ -8,7 +9,8 @@ import java.util.Collection;
  * Created by Mati on 17/04/2014.
  */
 public class Pot {
-    private double pot;
+    // Chips in minor units, see game.Chips
+    private long pot;
 
     private Collection<Player> playersInPot;
 
@@ -26,13 +28,17 @@ public class Pot {
         return playersInPot;
     }
 
-    public double getPot(){
-        return addToPot(0);
+    public long getPot(){
+        return pot;
     }
 
-    public double addToPot(double sum){ return pot += sum; }
+    public long addToPot(long sum){ return pot += sum; }
 
-    public double takeRake(double rake) { return addToPot( -rake); }
+    public long takeRake(long rake) { return addToPot( -rake); }
 
-    public double getWinnings(int winners) { return pot / winners; }
+    /**
+     * @param winner the winner's place in the order the odd units are handed out, 0 first
+     * @return the winner's share, the units that do not divide evenly going one each to the first winners
+     */
+    public long getWinnings(int winners, int winner) { return Chips.share(pot, winners, winner); }
 }
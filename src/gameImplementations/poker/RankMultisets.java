@@ -0,0 +1,76 @@
+package gameImplementations.poker;
+
+import deck.CardId;
+
+/**
+ * Perfect hash of rank multisets, the per-rank counts of up to
+ * {@link HandEvaluator#MAX_CARDS} cards packed as {@link HandEvaluator#rankCountOf}
+ * sums them. Multisets are numbered by size, then as base 5 numbers of their
+ * counts among the multisets of the same size, which leaves no gaps.
+ *
+ * Kept apart from {@link HandEvaluator} so that tables indexed the same way,
+ * such as a {@link StrengthTable}, do not wait for the evaluator's own tables
+ * to be built.
+ */
+final class RankMultisets {
+    private static final int MAX_CARDS = HandEvaluator.MAX_CARDS;
+    private static final int MAX_RANK_COUNT = 4;
+    private static final int RANK_COUNT_BITS = HandEvaluator.RANK_COUNT_BITS;
+    private static final int RANK_COUNT_MASK = (1 << RANK_COUNT_BITS) - 1;
+
+    // DIGIT_OFFSET[(rank * (MAX_CARDS + 1) + remaining) * 5 + count]
+    private static final int[] DIGIT_OFFSET = new int[CardId.RANKS * (MAX_CARDS + 1) * (MAX_RANK_COUNT + 1)];
+    private static final int[] SIZE_OFFSET = new int[MAX_CARDS + 2];
+
+    static {
+        // ways[r][k]: multisets over r ranks (at most 4 of each) holding k cards
+        int[][] ways = new int[CardId.RANKS + 1][MAX_CARDS + 1];
+        ways[0][0] = 1;
+        for (int r = 1; r <= CardId.RANKS; r++) {
+            for (int k = 0; k <= MAX_CARDS; k++) {
+                for (int c = 0; c <= Math.min(k, MAX_RANK_COUNT); c++) {
+                    ways[r][k] += ways[r - 1][k - c];
+                }
+            }
+        }
+        for (int rank = 0; rank < CardId.RANKS; rank++) {
+            for (int remaining = 0; remaining <= MAX_CARDS; remaining++) {
+                int offset = 0;
+                for (int count = 0; count <= MAX_RANK_COUNT; count++) {
+                    DIGIT_OFFSET[digitIndex(rank, remaining, count)] = offset;
+                    if (count <= remaining) {
+                        offset += ways[CardId.RANKS - 1 - rank][remaining - count];
+                    }
+                }
+            }
+        }
+        for (int k = 0; k <= MAX_CARDS; k++) {
+            SIZE_OFFSET[k + 1] = SIZE_OFFSET[k] + ways[CardId.RANKS][k];
+        }
+    }
+
+    private RankMultisets() {
+    }
+
+    /**
+     * @return the number of multisets, one past the highest index
+     */
+    static int size() {
+        return SIZE_OFFSET[MAX_CARDS + 1];
+    }
+
+    static int index(long rankCounts, int count) {
+        int index = SIZE_OFFSET[count];
+        int remaining = count;
+        for (int rank = 0; remaining > 0; rank++) {
+            int digit = (int) (rankCounts >>> (rank * RANK_COUNT_BITS)) & RANK_COUNT_MASK;
+            index += DIGIT_OFFSET[digitIndex(rank, remaining, digit)];
+            remaining -= digit;
+        }
+        return index;
+    }
+
+    private static int digitIndex(int rank, int remaining, int count) {
+        return (rank * (MAX_CARDS + 1) + remaining) * (MAX_RANK_COUNT + 1) + count;
+    }
+}
@@ -0,0 +1,233 @@
+package gameImplementations.poker;
+
+import game.Chips;
+
+import java.util.Arrays;
+
+/**
+ * Main and side pots of a hand, built from what every seat put in.
+ *
+ * While the hand is played, seats {@link #contribute} and {@link #fold}.
+ * {@link #build()} then sorts the contributions once and sweeps them in
+ * order: every distinct amount a player still in the hand put in closes a
+ * pot, which that player and everyone who put in more may win. Amounts are
+ * {@link Chips} minor units.
+ *
+ * {@link #settle} pays all pots in one pass from the top side pot down, so
+ * the best hand among the players eligible for a pot is carried over to
+ * the next pot and every player's rank is looked at once.
+ */
+public final class SidePots {
+    private static final int SEAT_BITS = 7;
+    private static final int MAX_SEATS = 1 << SEAT_BITS;
+
+    /**
+     * Receives the winnings of every seat, pot by pot.
+     */
+    public interface Award {
+        void award(int pot, int seat, long units);
+    }
+
+    private final int seats;
+    private final long[] contributed;
+    private final boolean[] folded;
+    // Seats by contribution, smallest first
+    private final int[] order;
+    private final long[] sortKeys;
+    // Players still in among order[i..]
+    private final int[] liveFrom;
+    private final long[] amounts;
+    private final long[] rakes;
+    // Pot i may be won by the players still in among order[eligibleFrom[i]..]
+    private final int[] eligibleFrom;
+    private final int[] eligibleCount;
+    private final int[] winners;
+    private int pots;
+
+    public SidePots(int seats) {
+        if (seats > MAX_SEATS) {
+            throw new IllegalArgumentException("At most " + MAX_SEATS + " seats, got " + seats);
+        }
+        this.seats = seats;
+        contributed = new long[seats];
+        folded = new boolean[seats];
+        order = new int[seats];
+        sortKeys = new long[seats];
+        liveFrom = new int[seats + 1];
+        amounts = new long[seats];
+        rakes = new long[seats];
+        eligibleFrom = new int[seats];
+        eligibleCount = new int[seats];
+        winners = new int[seats];
+    }
+
+    public void reset() {
+        Arrays.fill(contributed, 0);
+        Arrays.fill(folded, false);
+        pots = 0;
+    }
+
+    public void contribute(int seat, long units) {
+        contributed[seat] += units;
+    }
+
+    public void fold(int seat) {
+        folded[seat] = true;
+    }
+
+    public boolean isFolded(int seat) {
+        return folded[seat];
+    }
+
+    public long getContributed(int seat) {
+        return contributed[seat];
+    }
+
+    /**
+     * @return the number of pots, the main pot first
+     */
+    public int build() {
+        for (int seat = 0; seat < seats; seat++) {
+            sortKeys[seat] = contributed[seat] << SEAT_BITS | seat;
+        }
+        Arrays.sort(sortKeys);
+        for (int i = 0; i < seats; i++) {
+            order[i] = (int) (sortKeys[i] & (MAX_SEATS - 1));
+        }
+        for (int i = seats - 1; i >= 0; i--) {
+            liveFrom[i] = liveFrom[i + 1] + (folded[order[i]] ? 0 : 1);
+        }
+
+        pots = 0;
+        long level = 0;
+        int next = 0;
+        for (int i = 0; i < seats; i++) {
+            int seat = order[i];
+            if (folded[seat] || contributed[seat] == level) {
+                continue;
+            }
+            // Everything up to this player's contribution that nobody has claimed yet
+            long amount = 0;
+            for (; next < seats && contributed[order[next]] < contributed[seat]; next++) {
+                amount += Math.max(0, contributed[order[next]] - level);
+            }
+            amount += (contributed[seat] - level) * (seats - next);
+            level = contributed[seat];
+            amounts[pots] = amount;
+            rakes[pots] = 0;
+            eligibleFrom[pots] = i;
+            eligibleCount[pots] = liveFrom[i];
+            pots++;
+        }
+        // Folded players may have put in more than anyone still in the hand
+        long excess = 0;
+        for (; next < seats; next++) {
+            excess += Math.max(0, contributed[order[next]] - level);
+        }
+        if (pots > 0) {
+            amounts[pots - 1] += excess;
+        }
+        return pots;
+    }
+
+    public int getPots() {
+        return pots;
+    }
+
+    public long getAmount(int pot) {
+        return amounts[pot];
+    }
+
+    /**
+     * @return whether the seat may win the pot
+     */
+    public boolean isEligible(int pot, int seat) {
+        return !folded[seat] && contributed[seat] >= contributed[order[eligibleFrom[pot]]];
+    }
+
+    /**
+     * @return whether more than one player may win the pot
+     */
+    public boolean isContested(int pot) {
+        return eligibleCount[pot] > 1;
+    }
+
+    /**
+     * @return the units in pots more than one player may win
+     */
+    public long getContested() {
+        long contested = 0;
+        for (int pot = 0; pot < pots; pot++) {
+            contested += isContested(pot) ? amounts[pot] : 0;
+        }
+        return contested;
+    }
+
+    /**
+     * Takes the rake out of the contested pots, each giving its share of
+     * the contested units; the units that do not divide evenly come out of
+     * the first contested pot. A pot only one player may win is that
+     * player's own chips coming back, and is never raked.
+     */
+    public void takeRake(long rake) {
+        long contested = getContested();
+        long left = rake;
+        int first = -1;
+        for (int pot = 0; pot < pots; pot++) {
+            if (isContested(pot)) {
+                rakes[pot] = Chips.portion(rake, amounts[pot], contested);
+                left -= rakes[pot];
+                first = first < 0 ? pot : first;
+            }
+        }
+        if (first >= 0) {
+            rakes[first] += left;
+        }
+        for (int pot = 0; pot < pots; pot++) {
+            amounts[pot] -= rakes[pot];
+        }
+    }
+
+    /**
+     * @return the units {@link #takeRake} took out of the pot
+     */
+    public long getRake(int pot) {
+        return rakes[pot];
+    }
+
+    /**
+     * Pays every pot to its best ranked eligible players. A split pot's odd
+     * units go to the winners in seat order, seat 0 first.
+     *
+     * @param ranks hand rank by seat, higher is better; folded seats are not read
+     */
+    public void settle(int[] ranks, Award award) {
+        int best = Integer.MIN_VALUE;
+        int winnerCount = 0;
+        int added = seats;
+        for (int pot = pots - 1; pot >= 0; pot--) {
+            // The pot below may also be won by the players who put in less
+            for (int i = eligibleFrom[pot]; i < added; i++) {
+                int seat = order[i];
+                if (folded[seat]) {
+                    continue;
+                }
+                if (ranks[seat] > best) {
+                    best = ranks[seat];
+                    winnerCount = 0;
+                }
+                if (ranks[seat] == best) {
+                    winners[winnerCount++] = seat;
+                }
+            }
+            added = eligibleFrom[pot];
+            if (amounts[pot] == 0) {
+                continue;
+            }
+            Arrays.sort(winners, 0, winnerCount);
+            for (int winner = 0; winner < winnerCount; winner++) {
+                award.award(pot, winners[winner], Chips.share(amounts[pot], winnerCount, winner));
+            }
+        }
+    }
+}
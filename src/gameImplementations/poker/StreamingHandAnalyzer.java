@@ -0,0 +1,204 @@
+package gameImplementations.poker;
+
+import deck.Card;
+import deck.Card.Rank;
+import deck.Card.Suit;
+
+import java.util.List;
+
+/**
+ * Allocation free version of {@link PokerHandAnalyzer}'s rank/suit counting
+ * algorithm. Cards are accumulated into fixed size histograms indexed by rank
+ * and suit ordinal, straights are found on a rank bitmask and the kicker is
+ * built as an int of hex digits instead of a {@code String}.
+ *
+ * {@link #getStrength()} returns exactly the {@code double} the collections
+ * based analyzer returns for the same cards, as long as no more than one suit
+ * holds five cards (i.e. for any hand of fewer than ten cards).
+ *
+ * Instances are mutable and not thread safe; reuse one per thread.
+ */
+public final class StreamingHandAnalyzer {
+    private static final int RANKS = Rank.values().length;
+    private static final int SUITS = Suit.values().length;
+    private static final int STRAIGHT_LENGTH = 5;
+    private static final int FLUSH_SIZE = 5;
+    private static final int KICKER_LENGTH = 5;
+    private static final int HEXA_BITS = 4;
+
+    private static final int STRAIGHT_RUN = (1 << STRAIGHT_LENGTH) - 1;
+    private static final int WHEEL_RUN = STRAIGHT_RUN >>> 1 << Rank.TWO.getStrength();
+    private static final int WHEEL_KICKER = 0x5432 << HEXA_BITS | Rank.ACE.getStrength();
+
+    private static final int[] RANK_STRENGTHS = new int[RANKS];
+
+    static {
+        for (Rank rank : Rank.values()) {
+            RANK_STRENGTHS[rank.ordinal()] = rank.getStrength();
+        }
+    }
+
+    private final int[] rankCounts = new int[RANKS];
+    private final int[] suitCounts = new int[SUITS];
+    private final int[] suitRankCounts = new int[SUITS * RANKS];
+    private int cardCount;
+
+    public StreamingHandAnalyzer() {
+        clear();
+    }
+
+    public double getStrength(List<Card> cards) {
+        clear();
+        for (int i = 0; i < cards.size(); i++) {
+            add(cards.get(i));
+        }
+        return getStrength();
+    }
+
+    public void clear() {
+        for (int i = 0; i < RANKS; i++) rankCounts[i] = 0;
+        for (int i = 0; i < SUITS; i++) suitCounts[i] = 0;
+        for (int i = 0; i < suitRankCounts.length; i++) suitRankCounts[i] = 0;
+        cardCount = 0;
+    }
+
+    public void add(Card card) {
+        // Cards without a suit are grouped with the unrecognized ones
+        add(card.getRank().ordinal(), card.getSuit() == null ? Suit.UNRECOGNIZED.ordinal() : card.getSuit().ordinal());
+    }
+
+    public void add(int rankOrdinal, int suitOrdinal) {
+        rankCounts[rankOrdinal]++;
+        suitCounts[suitOrdinal]++;
+        suitRankCounts[suitOrdinal * RANKS + rankOrdinal]++;
+        cardCount++;
+    }
+
+    public int getCardCount() {
+        return cardCount;
+    }
+
+    /**
+     * @return the strength of the cards added since the last {@link #clear()}
+     */
+    public double getStrength() {
+        // Flush + Straight Flush
+        for (int suit = 0; suit < SUITS; suit++) {
+            if (suitCounts[suit] >= FLUSH_SIZE) {
+                int offset = suit * RANKS;
+                int straight = straightKicker(presence(offset));
+                return straight < 0 ?
+                        toStrength(PokerHandAnalyzer.Strength.FLUSH.getStrength(), topKicker(offset)) :
+                        toStrength(PokerHandAnalyzer.Strength.STRAIGHT_FLUSH.getStrength(), straight);
+            }
+        }
+        // Straight
+        int straight = straightKicker(presence(-1));
+        if (straight >= 0) {
+            return toStrength(PokerHandAnalyzer.Strength.STRAIGHT.getStrength(), straight);
+        }
+
+        // Other Hands
+        int handStrength = 0;
+        for (int rank = RANKS - 1; rank >= 0; rank--) {
+            switch (rankCounts[rank]) {
+                case 1:
+                    handStrength += PokerHandAnalyzer.Strength.SINGLE.getStrength();
+                    break;
+                case 2:
+                    handStrength = (handStrength != PokerHandAnalyzer.Strength.TRIO.getStrength()) ?
+                            Math.min(handStrength + PokerHandAnalyzer.Strength.PAIR.getStrength(),
+                                    PokerHandAnalyzer.Strength.TWO_PAIRS.getStrength()) :
+                            PokerHandAnalyzer.Strength.FULL_HOUSE.getStrength();
+                    break;
+                case 3:
+                    handStrength = handStrength < PokerHandAnalyzer.Strength.PAIR.getStrength() ?
+                            PokerHandAnalyzer.Strength.TRIO.getStrength() :
+                            PokerHandAnalyzer.Strength.FULL_HOUSE.getStrength();
+                    break;
+                case 4:
+                    handStrength = PokerHandAnalyzer.Strength.QUADS.getStrength();
+                    break;
+            }
+        }
+
+        // Kicker digits: quads, then trios, then pairs, then singles
+        int kicker = 0;
+        int digits = 0;
+        for (int groupSize = 4; groupSize >= 1 && digits < KICKER_LENGTH; groupSize--) {
+            for (int rank = RANKS - 1; rank >= 0 && digits < KICKER_LENGTH; rank--) {
+                if (rankCounts[rank] == groupSize) {
+                    for (int i = 0; i < groupSize && digits < KICKER_LENGTH; i++, digits++) {
+                        kicker = kicker << HEXA_BITS | strengthOf(rank);
+                    }
+                }
+            }
+        }
+        return toStrength(handStrength, kicker);
+    }
+
+    /**
+     * Rebuilds the {@code double} strength from its category and hex kicker,
+     * bit for bit equal to {@code category + Double.valueOf("0." + kicker)}.
+     */
+    public static double toStrength(int category, int kicker) {
+        long scale = 10;
+        while (scale <= kicker) {
+            scale *= 10;
+        }
+        return category + kicker / (double) scale;
+    }
+
+    /**
+     * @param offset start of a suit's histogram, or -1 for all cards
+     * @return bitmask of the present ranks, bit {@link Rank#getStrength()}
+     */
+    private int presence(int offset) {
+        int present = 0;
+        for (int rank = 0; rank < RANKS; rank++) {
+            if ((offset < 0 ? rankCounts[rank] : suitRankCounts[offset + rank]) > 0) {
+                present |= 1 << strengthOf(rank);
+            }
+        }
+        return present;
+    }
+
+    /**
+     * @return the highest five of a suit's cards as hex digits, duplicates included
+     */
+    private int topKicker(int offset) {
+        int kicker = 0;
+        int digits = 0;
+        for (int rank = RANKS - 1; rank >= 0 && digits < KICKER_LENGTH; rank--) {
+            for (int i = 0; i < suitRankCounts[offset + rank] && digits < KICKER_LENGTH; i++, digits++) {
+                kicker = kicker << HEXA_BITS | strengthOf(rank);
+            }
+        }
+        return kicker;
+    }
+
+    /**
+     * @return the straight's five ranks as hex digits, or -1 if there is none
+     */
+    private static int straightKicker(int present) {
+        for (int high = Rank.ACE.getStrength(); high >= Rank.SIX.getStrength(); high--) {
+            int run = STRAIGHT_RUN << (high - STRAIGHT_LENGTH + 1);
+            if ((present & run) == run) {
+                int kicker = 0;
+                for (int rank = high; rank > high - STRAIGHT_LENGTH; rank--) {
+                    kicker = kicker << HEXA_BITS | rank;
+                }
+                return kicker;
+            }
+        }
+        // The ace only plays low when the lowest run of cards is exactly 5-4-3-2
+        boolean wheel = (present & WHEEL_RUN) == WHEEL_RUN &&
+                (present & (1 << Rank.ACE.getStrength())) != 0 &&
+                (present & (1 << Rank.UNRECOGNIZED.getStrength())) == 0;
+        return wheel ? WHEEL_KICKER : -1;
+    }
+
+    private static int strengthOf(int rankOrdinal) {
+        return RANK_STRENGTHS[rankOrdinal];
+    }
+}
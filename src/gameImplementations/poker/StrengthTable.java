@@ -0,0 +1,97 @@
+package gameImplementations.poker;
+
+import deck.CardId;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+import static gameImplementations.poker.StrengthTableFormat.*;
+
+/**
+ * Hand strengths looked up in a file a {@link StrengthTableGenerator} wrote,
+ * instead of computed by {@link PokerHandAnalyzer}. A strength only depends
+ * on the ranks held, unless five cards share a suit, and then only on that
+ * suit's ranks; so the table holds one strength per rank multiset, indexed
+ * by the {@link RankMultisets} perfect hash, and one per flush rank mask.
+ * Neither needs {@link HandEvaluator}'s tables, so a process that only looks
+ * strengths up never builds them.
+ *
+ * The file is mapped read only and strengths are read straight from the
+ * mapping, so the operating system pages the table in as it is used and
+ * shares it between processes. Opening checks the header and the checksum;
+ * safe to use from any number of threads.
+ */
+public final class StrengthTable {
+    private static final int FLUSH_SIZE = 5;
+    private static final int RANK_MASK = FLUSHES - 1;
+
+    private final ByteBuffer table;
+
+    private StrengthTable(ByteBuffer table) {
+        this.table = table;
+    }
+
+    public static StrengthTable open(Path path) throws IOException {
+        ByteBuffer table;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() != FILE_SIZE) {
+                throw new IOException(path + " is " + channel.size() + " bytes, expected " + FILE_SIZE);
+            }
+            table = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_SIZE);
+        }
+        table.order(ORDER);
+        if (table.getInt(MAGIC_OFFSET) != MAGIC) {
+            throw new IOException(path + " is not a hand strength table");
+        }
+        if (table.getInt(VERSION_OFFSET) != VERSION) {
+            throw new IOException(path + " has version " + table.getInt(VERSION_OFFSET) + ", expected " + VERSION);
+        }
+        if (table.getInt(MULTISETS_OFFSET) != MULTISETS || table.getInt(FLUSHES_OFFSET) != FLUSHES) {
+            throw new IOException(path + " does not have the expected table sizes");
+        }
+        if (table.getLong(CHECKSUM_OFFSET) != checksum(table)) {
+            throw new IOException(path + " is corrupt, its checksum does not match");
+        }
+        return new StrengthTable(table);
+    }
+
+    /**
+     * @param cardMask up to {@link HandEvaluator#MAX_CARDS} cards as a {@link deck.CardSet} mask
+     * @return the strength of the cards, NaN for no cards or too many
+     */
+    public double getStrength(long cardMask) {
+        int count = Long.bitCount(cardMask);
+        if (count > HandEvaluator.MAX_CARDS) {
+            return Double.NaN;
+        }
+        long rankCounts = 0;
+        long suitRanks = 0;
+        // Packed as HandEvaluator packs them, but with CardId's layout spelled out,
+        // so a lookup loads neither the evaluator's tables nor the card classes
+        for (long rest = cardMask; rest != 0; rest &= rest - 1) {
+            int id = Long.numberOfTrailingZeros(rest);
+            int rank = id >>> CardId.SUIT_BITS;
+            rankCounts += 1L << (rank * HandEvaluator.RANK_COUNT_BITS);
+            suitRanks |= 1L << ((id & CardId.SUIT_MASK) * HandEvaluator.SUIT_LANE_BITS + rank);
+        }
+        if (count >= FLUSH_SIZE) {
+            for (int shift = 0; shift < Long.SIZE; shift += HandEvaluator.SUIT_LANE_BITS) {
+                int ranks = (int) (suitRanks >>> shift) & RANK_MASK;
+                if (Integer.bitCount(ranks) >= FLUSH_SIZE) {
+                    return table.getDouble(flushEntry(ranks));
+                }
+            }
+        }
+        return table.getDouble(multisetEntry(RankMultisets.index(rankCounts, count)));
+    }
+
+    static long checksum(ByteBuffer table) {
+        CRC32C crc = new CRC32C();
+        crc.update(table.duplicate().position(HEADER_SIZE).limit(FILE_SIZE));
+        return crc.getValue();
+    }
+}
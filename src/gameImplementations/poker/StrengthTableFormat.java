@@ -0,0 +1,46 @@
+package gameImplementations.poker;
+
+import deck.CardId;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of a hand strength table file, all little endian.
+ * <pre>
+ * header     int magic, int version, int rank multisets, int flush entries,
+ *            long CRC-32C of everything after the header
+ * multisets  double strength per rank multiset of up to seven cards, in the
+ *            order of {@link RankMultisets#index}; NaN for no cards
+ * flushes    double strength per 13 bit rank mask of the suit holding five to
+ *            seven of the cards; NaN for other masks
+ * </pre>
+ * Strengths are the values {@link PokerHandAnalyzer#getStrength} computes.
+ */
+final class StrengthTableFormat {
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    static final int MAGIC = 0x48535431; // "HST1"
+    static final int VERSION = 1;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int MULTISETS_OFFSET = 8;
+    static final int FLUSHES_OFFSET = 12;
+    static final int CHECKSUM_OFFSET = 16;
+    static final int HEADER_SIZE = 24;
+
+    static final int MULTISETS = RankMultisets.size();
+    static final int FLUSHES = 1 << CardId.RANKS;
+    static final int MULTISET_TABLE_OFFSET = HEADER_SIZE;
+    static final int FLUSH_TABLE_OFFSET = MULTISET_TABLE_OFFSET + MULTISETS * Double.BYTES;
+    static final int FILE_SIZE = FLUSH_TABLE_OFFSET + FLUSHES * Double.BYTES;
+
+    private StrengthTableFormat() {}
+
+    static int multisetEntry(int multiset) {
+        return MULTISET_TABLE_OFFSET + multiset * Double.BYTES;
+    }
+
+    static int flushEntry(int ranks) {
+        return FLUSH_TABLE_OFFSET + ranks * Double.BYTES;
+    }
+}
@@ -0,0 +1,117 @@
+package gameImplementations.poker;
+
+import deck.CardId;
+import deck.CardSet;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import static gameImplementations.poker.StrengthTableFormat.*;
+
+/**
+ * Computes every strength of a {@link StrengthTable} with the
+ * {@link StreamingHandAnalyzer} and writes them to a file, once, ahead of the
+ * processes that look them up. Each rank multiset is evaluated on cards
+ * spread over the suits so that none holds five; each flush rank mask on
+ * cards of a single suit.
+ *
+ * The file is written next to its destination and moved over it when
+ * complete, so readers never map a half written table. Run with
+ * {@code ./gradlew strengthTable}, or pass the file to {@link #main}.
+ */
+public final class StrengthTableGenerator {
+    private static final int FLUSH_SIZE = 5;
+
+    private StrengthTableGenerator() {
+    }
+
+    public static void generate(Path path) throws IOException {
+        StreamingHandAnalyzer analyzer = new StreamingHandAnalyzer();
+        double[] multisets = new double[MULTISETS];
+        fillMultisets(multisets, new int[CardId.RANKS], 0, 0, analyzer);
+        double[] flushes = new double[FLUSHES];
+        for (int ranks = 0; ranks < FLUSHES; ranks++) {
+            int count = Integer.bitCount(ranks);
+            flushes[ranks] = count < FLUSH_SIZE || count > HandEvaluator.MAX_CARDS ? Double.NaN :
+                    analyzer.getStrength(CardSet.toCards(flushMask(ranks)));
+        }
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path partial = directory.resolve(path.getFileName() + ".partial");
+        try {
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+                table.order(ORDER);
+                table.putInt(MAGIC_OFFSET, MAGIC);
+                table.putInt(VERSION_OFFSET, VERSION);
+                table.putInt(MULTISETS_OFFSET, MULTISETS);
+                table.putInt(FLUSHES_OFFSET, FLUSHES);
+                table.position(MULTISET_TABLE_OFFSET);
+                table.asDoubleBuffer().put(multisets);
+                table.position(FLUSH_TABLE_OFFSET);
+                table.asDoubleBuffer().put(flushes);
+                table.putLong(CHECKSUM_OFFSET, StrengthTable.checksum(table));
+                table.force();
+            }
+            Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    /**
+     * Walks every multiset of up to {@link HandEvaluator#MAX_CARDS} cards, a rank at a time.
+     */
+    private static void fillMultisets(double[] strengths, int[] counts, int rank, int total,
+                                      StreamingHandAnalyzer analyzer) {
+        if (rank == CardId.RANKS) {
+            long rankCounts = 0;
+            long mask = CardSet.EMPTY;
+            // Dealing the suits round robin keeps any suit to two cards of seven
+            int suit = 0;
+            for (int r = 0; r < CardId.RANKS; r++) {
+                rankCounts += (long) counts[r] << (r * HandEvaluator.RANK_COUNT_BITS);
+                for (int c = 0; c < counts[r]; c++) {
+                    mask = CardSet.with(mask, CardId.of(r, suit++ % CardId.SUITS));
+                }
+            }
+            strengths[RankMultisets.index(rankCounts, total)] = total == 0 ? Double.NaN :
+                    analyzer.getStrength(CardSet.toCards(mask));
+            return;
+        }
+        for (int count = 0; count <= CardId.SUITS && total + count <= HandEvaluator.MAX_CARDS; count++) {
+            counts[rank] = count;
+            fillMultisets(strengths, counts, rank + 1, total + count, analyzer);
+        }
+        counts[rank] = 0;
+    }
+
+    private static long flushMask(int ranks) {
+        long mask = CardSet.EMPTY;
+        for (int rank = 0; rank < CardId.RANKS; rank++) {
+            if ((ranks >>> rank & 1) != 0) {
+                mask = CardSet.with(mask, CardId.of(rank, 0));
+            }
+        }
+        return mask;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: StrengthTableGenerator file");
+            System.exit(1);
+        }
+        Path path = Paths.get(args[0]);
+        long start = System.nanoTime();
+        generate(path);
+        System.out.printf("Wrote %s in %.1f s%n", path, (System.nanoTime() - start) / 1e9);
+    }
+}
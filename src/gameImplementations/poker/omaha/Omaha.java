@@ -0,0 +1,52 @@
+package gameImplementations.poker.omaha;
+
+import game.GameEnum;
+import gameImplementations.poker.texasHoldem.BetScript;
+import gameImplementations.poker.texasHoldem.TexasHoldem;
+import participants.Player;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Omaha is bet like {@link TexasHoldem}, with the same blinds, streets and
+ * side pots and no pot limit. Every player gets four hole cards and must play
+ * exactly two of them with exactly three from the board.
+ */
+public class Omaha extends TexasHoldem {
+    public static GameEnum GAME_KIND = GameEnum.OMAHA;
+
+    private final OmahaEvaluator showdown = new OmahaEvaluator();
+
+    public Omaha(List<Player> playersInHand, double ante, double smallBlind, double bigBlind, double rake, double cap) {
+        super(playersInHand, ante, smallBlind, bigBlind, rake, cap);
+    }
+
+    public Omaha(List<Player> playersInHand, double ante, double smallBlind, double bigBlind, double rake, double cap,
+                 Map<Player, List<Double>> bets) {
+        super(playersInHand, ante, smallBlind, bigBlind, rake, cap, bets);
+    }
+
+    public Omaha(List<Player> playersInHand, double ante, double smallBlind, double bigBlind, double rake, double cap,
+                 BetScript script) {
+        super(playersInHand, ante, smallBlind, bigBlind, rake, cap, script);
+    }
+
+    @Override
+    protected GameEnum getGameKind() {
+        return GAME_KIND;
+    }
+
+    @Override
+    protected int getHoleCards() {
+        return OmahaHand.HOLE_CARDS;
+    }
+
+    @Override
+    protected int rankHand(long boardMask, Player player) {
+        if (showdown.getBoardMask() != boardMask) {
+            showdown.setBoard(boardMask);
+        }
+        return showdown.evaluate(((OmahaHand) player.getHand()).getHoleMask());
+    }
+}
@@ -0,0 +1,225 @@
+package gameImplementations.poker.omaha;
+
+import deck.CardId;
+import deck.CardSet;
+import gameImplementations.poker.HandEvaluator;
+
+import java.util.Arrays;
+
+/**
+ * Evaluates Omaha hands, which play exactly two hole cards with exactly three
+ * board cards, against the same board. Ranks are {@link HandEvaluator} ranks,
+ * so they compare with Hold'em ranks and describe the same way.
+ *
+ * Rather than scoring every two plus three combination as a separate hand:
+ * <ul>
+ *     <li>{@link #setBoard(long)} packs the board's three card subsets once,
+ *     keeping only those with distinct ranks, and files the single suited
+ *     ones by suit;</li>
+ *     <li>without the suits only the ranks of the two hole cards matter, so
+ *     the best rank for every pair of hole ranks is worked out the first
+ *     time it is seen on a board, by this hand or any other, and then
+ *     looked up;</li>
+ *     <li>two plus three rank counts are scored through a hashed table of
+ *     every five card rank multiset instead of the general evaluator;</li>
+ *     <li>flushes are only tried for two suited hole cards against board
+ *     subsets of the same suit, which usually means none.</li>
+ * </ul>
+ *
+ * Instances are mutable and not thread safe; reuse one per thread.
+ */
+public final class OmahaEvaluator {
+    public static final int HOLE_CARDS_USED = 2;
+    public static final int BOARD_CARDS_USED = 3;
+
+    private static final int FIVE_CARDS = HOLE_CARDS_USED + BOARD_CARDS_USED;
+    private static final int MAX_BOARD = 5;
+    private static final int MAX_SUBSETS = 10; // 5 choose 3
+    private static final int MAX_HOLE = 6;
+    private static final int SUITS = 4;
+
+    // Open addressed table of five card rank counts to their non-flush rank
+    private static final int TABLE_BITS = 14;
+    private static final long[] FIVE_KEYS = new long[1 << TABLE_BITS];
+    private static final int[] FIVE_RANKS = new int[1 << TABLE_BITS];
+
+    static {
+        fillFive(0, 0, 0);
+    }
+
+    private long boardMask;
+    private int boardCount;
+    // Rank counts of the board subsets, each distinct once
+    private final long[] subsetRanks = new long[MAX_SUBSETS];
+    private int subsetCount;
+    // Single suited board subsets by suit
+    private final long[][] suitedRanks = new long[SUITS][MAX_SUBSETS];
+    private final long[][] suitedSuits = new long[SUITS][MAX_SUBSETS];
+    private final int[] suitedCount = new int[SUITS];
+
+    // Best rank of each pair of hole ranks on this board, valid where the stamp matches
+    private final int[] pairBest = new int[CardId.RANKS * CardId.RANKS];
+    private final int[] pairStamp = new int[CardId.RANKS * CardId.RANKS];
+    private int stamp;
+
+    private final int[] holeIds = new int[MAX_HOLE];
+    private final int[] boardIds = new int[MAX_BOARD];
+
+    public OmahaEvaluator() {
+        setBoard(CardSet.EMPTY);
+    }
+
+    public OmahaEvaluator(long boardMask) {
+        setBoard(boardMask);
+    }
+
+    public OmahaEvaluator setBoard(long boardMask) {
+        boardCount = Long.bitCount(boardMask);
+        if (boardCount > MAX_BOARD) {
+            throw new IllegalArgumentException("A board has at most " + MAX_BOARD + " cards, got " + boardCount);
+        }
+        this.boardMask = boardMask;
+        int count = 0;
+        for (long rest = boardMask; rest != 0; rest &= rest - 1) {
+            boardIds[count++] = Long.numberOfTrailingZeros(rest);
+        }
+        subsetCount = 0;
+        Arrays.fill(suitedCount, 0);
+        // Before the flop the hand plays what there is of the board
+        int used = Math.min(BOARD_CARDS_USED, boardCount);
+        addSubsets(0, used, 0, 0, 0);
+        if (++stamp == 0) {
+            Arrays.fill(pairStamp, 0);
+            stamp = 1;
+        }
+        return this;
+    }
+
+    public long getBoardMask() {
+        return boardMask;
+    }
+
+    /**
+     * @param holeMask the hand's own cards, two to {@value #MAX_HOLE} of them, none on the board
+     * @return the {@link HandEvaluator} rank of the best two hole cards with three board cards
+     */
+    public int evaluate(long holeMask) {
+        int holeCount = Long.bitCount(holeMask);
+        if (holeCount < HOLE_CARDS_USED || holeCount > MAX_HOLE) {
+            throw new IllegalArgumentException("Omaha hands have " + HOLE_CARDS_USED + " to " + MAX_HOLE
+                    + " hole cards, got " + holeCount);
+        }
+        int count = 0;
+        for (long rest = holeMask; rest != 0; rest &= rest - 1) {
+            holeIds[count++] = Long.numberOfTrailingZeros(rest);
+        }
+
+        int best = 0;
+        for (int i = 0; i < holeCount; i++) {
+            for (int j = i + 1; j < holeCount; j++) {
+                best = Math.max(best, bestForPair(CardId.rank(holeIds[j]), CardId.rank(holeIds[i])));
+                if (CardId.suit(holeIds[i]) == CardId.suit(holeIds[j])) {
+                    best = Math.max(best, bestFlush(holeIds[i], holeIds[j]));
+                }
+            }
+        }
+        return best;
+    }
+
+    private int bestForPair(int high, int low) {
+        int pair = high * CardId.RANKS + low;
+        if (pairStamp[pair] == stamp) {
+            return pairBest[pair];
+        }
+        long pairRanks = rankCount(high) + rankCount(low);
+        int best = 0;
+        int count = HOLE_CARDS_USED + Math.min(BOARD_CARDS_USED, boardCount);
+        for (int subset = 0; subset < subsetCount; subset++) {
+            long rankCounts = pairRanks + subsetRanks[subset];
+            best = Math.max(best, count == FIVE_CARDS ?
+                    lookupFive(rankCounts) :
+                    HandEvaluator.evaluateRanks(rankCounts, count));
+        }
+        pairBest[pair] = best;
+        pairStamp[pair] = stamp;
+        return best;
+    }
+
+    private int bestFlush(int first, int second) {
+        int suit = CardId.suit(first);
+        long pairRanks = HandEvaluator.rankCountOf(first) + HandEvaluator.rankCountOf(second);
+        long pairSuits = HandEvaluator.suitRankOf(first) | HandEvaluator.suitRankOf(second);
+        int best = 0;
+        for (int subset = 0; subset < suitedCount[suit]; subset++) {
+            best = Math.max(best, HandEvaluator.evaluate(pairRanks + suitedRanks[suit][subset],
+                    pairSuits | suitedSuits[suit][subset], FIVE_CARDS));
+        }
+        return best;
+    }
+
+    private void addSubsets(int from, int left, long rankCounts, long suitRanks, int suits) {
+        if (left == 0) {
+            if (!contains(subsetRanks, subsetCount, rankCounts)) {
+                subsetRanks[subsetCount++] = rankCounts;
+            }
+            if (Integer.bitCount(suits) == 1 && boardCount >= BOARD_CARDS_USED) {
+                int suit = Integer.numberOfTrailingZeros(suits);
+                suitedRanks[suit][suitedCount[suit]] = rankCounts;
+                suitedSuits[suit][suitedCount[suit]++] = suitRanks;
+            }
+            return;
+        }
+        for (int i = from; i <= boardCount - left; i++) {
+            int id = boardIds[i];
+            addSubsets(i + 1, left - 1, rankCounts + HandEvaluator.rankCountOf(id),
+                    suitRanks | HandEvaluator.suitRankOf(id), suits | 1 << CardId.suit(id));
+        }
+    }
+
+    private static boolean contains(long[] values, int count, long value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long rankCount(int rank) {
+        return 1L << rank * HandEvaluator.RANK_COUNT_BITS;
+    }
+
+    ////////////////////////////////////////
+    // Five card table
+    ////////////////////////////////////////
+
+    private static int lookupFive(long rankCounts) {
+        int slot = slotOf(rankCounts);
+        while (FIVE_KEYS[slot] != rankCounts) {
+            slot = (slot + 1) & (FIVE_KEYS.length - 1);
+        }
+        return FIVE_RANKS[slot];
+    }
+
+    private static int slotOf(long rankCounts) {
+        return (int) (rankCounts * 0x9E3779B97F4A7C15L >>> (Long.SIZE - TABLE_BITS));
+    }
+
+    private static void fillFive(int rank, int total, long rankCounts) {
+        if (total == FIVE_CARDS) {
+            int slot = slotOf(rankCounts);
+            while (FIVE_KEYS[slot] != 0) {
+                slot = (slot + 1) & (FIVE_KEYS.length - 1);
+            }
+            FIVE_KEYS[slot] = rankCounts;
+            FIVE_RANKS[slot] = HandEvaluator.evaluateRanks(rankCounts, FIVE_CARDS);
+            return;
+        }
+        if (rank == CardId.RANKS) {
+            return;
+        }
+        for (int count = 0; count <= SUITS && total + count <= FIVE_CARDS; count++) {
+            fillFive(rank + 1, total + count, rankCounts + count * rankCount(rank));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package gameImplementations.poker.omaha;
+
+import deck.Card;
+import deck.CardId;
+import deck.CardSet;
+import game.Hand;
+import gameImplementations.poker.HandDescription;
+import gameImplementations.poker.HandEvaluator;
+import gameImplementations.poker.texasHoldem.HoldemHand;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * An Omaha hand: the first {@link #HOLE_CARDS} cards added are the player's
+ * own, any later ones are the board. The hand plays exactly two of its own
+ * cards with exactly three from the board, see {@link OmahaEvaluator}.
+ */
+public class OmahaHand implements Hand, Comparable<OmahaHand> {
+    public static final int HOLE_CARDS = 4;
+
+    private static final ThreadLocal<OmahaEvaluator> EVALUATOR = new ThreadLocal<OmahaEvaluator>() {
+        @Override
+        protected OmahaEvaluator initialValue() {
+            return new OmahaEvaluator();
+        }
+    };
+
+    private final List<Card> cards = new ArrayList<>();
+    private int holeCount;
+    private long holeMask = CardSet.EMPTY;
+    private long boardMask = CardSet.EMPTY;
+
+    public OmahaHand() {
+    }
+
+    public OmahaHand(Collection<Card> holeCards, Collection<Card> board) {
+        for (Card card : holeCards) {
+            addCard(card);
+        }
+        for (Card card : board) {
+            addCard(card);
+        }
+    }
+
+    @Override
+    public boolean addCard(Card card) {
+        int id = CardId.of(card);
+        if (holeCount < HOLE_CARDS) {
+            holeCount++;
+            if (id != CardId.NONE) {
+                holeMask = CardSet.with(holeMask, id);
+            }
+        } else if (id != CardId.NONE) {
+            boardMask = CardSet.with(boardMask, id);
+        }
+        return cards.add(card);
+    }
+
+    /**
+     * @return the hole cards first, then the board, in the order they were added
+     */
+    @Override
+    public List<Card> getCards() {
+        return cards;
+    }
+
+    public List<Card> getHoleCards() {
+        return cards.subList(0, holeCount);
+    }
+
+    public long getHoleMask() {
+        return holeMask;
+    }
+
+    public long getBoardMask() {
+        return boardMask;
+    }
+
+    /**
+     * @return the {@link HandEvaluator} rank of the best two hole cards with three board cards
+     */
+    public int getRank() {
+        OmahaEvaluator evaluator = EVALUATOR.get();
+        if (evaluator.getBoardMask() != boardMask) {
+            evaluator.setBoard(boardMask);
+        }
+        return evaluator.evaluate(holeMask);
+    }
+
+    /**
+     * Same scale as {@link HoldemHand#getStrength()}, taken from the best five cards the hand plays.
+     */
+    @Override
+    public double getStrength() {
+        return new HoldemHand(CardSet.toCards(getBestFive())).getStrength();
+    }
+
+    /**
+     * @return the two hole cards and three board cards the hand plays, as a {@link CardSet} mask
+     */
+    public long getBestFive() {
+        int boardUsed = Math.min(OmahaEvaluator.BOARD_CARDS_USED, Long.bitCount(boardMask));
+        long best = CardSet.EMPTY;
+        int bestRank = -1;
+        for (long pair : subsets(holeMask, OmahaEvaluator.HOLE_CARDS_USED)) {
+            for (long board : subsets(boardMask, boardUsed)) {
+                int rank = HandEvaluator.evaluate(pair | board);
+                if (rank > bestRank) {
+                    bestRank = rank;
+                    best = pair | board;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static List<Long> subsets(long mask, int size) {
+        List<Long> subsets = new ArrayList<>();
+        addSubsets(mask, size, CardSet.EMPTY, subsets);
+        return subsets;
+    }
+
+    private static void addSubsets(long rest, int size, long subset, List<Long> subsets) {
+        if (size == 0) {
+            subsets.add(subset);
+            return;
+        }
+        for (; Long.bitCount(rest) >= size; rest &= rest - 1) {
+            long lowest = Long.lowestOneBit(rest);
+            addSubsets(rest & ~lowest, size - 1, subset | lowest, subsets);
+        }
+    }
+
+    public String getDescription() {
+        return HandDescription.describe(getRank());
+    }
+
+    /**
+     * Shows only the hole cards; the best five come from them and the board.
+     */
+    @Override
+    public String describe(List<Card> board) {
+        OmahaHand hand = new OmahaHand(getHoleCards(), board);
+        return getHoleCards() + " | " + hand.getDescription() + " | " + hand.getStrength();
+    }
+
+    @Override
+    public int compareTo(OmahaHand otherHand) {
+        return Integer.compare(getRank(), otherHand.getRank());
+    }
+}
@@ -0,0 +1,12 @@
+package gameImplementations.poker.omaha;
+
+import game.Hand;
+import game.HandFactory;
+
+public class OmahaHandFactory implements HandFactory {
+
+    @Override
+    public Hand make() {
+        return new OmahaHand();
+    }
+}
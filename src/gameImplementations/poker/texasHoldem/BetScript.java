@@ -0,0 +1,88 @@
+package gameImplementations.poker.texasHoldem;
+
+import game.Chips;
+import participants.Player;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The bets every seat makes in turn, for dealing scripted hands. Seats are
+ * numbered as the players are listed to the {@link TexasHoldem}; a seat that
+ * has no bet left checks, or folds when it faces a bet.
+ *
+ * Bets are kept in {@link Chips} minor units, one array per seat. A script
+ * is never changed by the hands that play it, so one script may be replayed
+ * any number of times, from any number of threads.
+ */
+public final class BetScript {
+    /** No seat bets anything */
+    public static final BetScript NONE = new BetScript(new long[0][]);
+
+    private static final long[] NO_BETS = new long[0];
+
+    private final long[][] bets;
+
+    private BetScript(long[][] bets) {
+        this.bets = bets;
+    }
+
+    /**
+     * @param bets each seat's bets in chips, in the order it makes them
+     */
+    public static BetScript of(double[]... bets) {
+        long[][] units = new long[bets.length][];
+        for (int seat = 0; seat < bets.length; seat++) {
+            units[seat] = toUnits(bets[seat]);
+        }
+        return new BetScript(units);
+    }
+
+    /**
+     * @param bets each player's bets in chips, in the order it makes them; players left out bet nothing
+     */
+    public static BetScript of(List<Player> seats, Map<Player, List<Double>> bets) {
+        long[][] units = new long[seats.size()][];
+        for (int seat = 0; seat < units.length; seat++) {
+            List<Double> seatBets = bets.get(seats.get(seat));
+            units[seat] = NO_BETS;
+            if (seatBets != null && !seatBets.isEmpty()) {
+                units[seat] = new long[seatBets.size()];
+                for (int turn = 0; turn < units[seat].length; turn++) {
+                    units[seat][turn] = Chips.of(seatBets.get(turn));
+                }
+            }
+        }
+        return new BetScript(units);
+    }
+
+    private static long[] toUnits(double[] chips) {
+        if (chips == null || chips.length == 0) {
+            return NO_BETS;
+        }
+        long[] units = new long[chips.length];
+        for (int turn = 0; turn < chips.length; turn++) {
+            units[turn] = Chips.of(chips[turn]);
+        }
+        return units;
+    }
+
+    public int getSeats() {
+        return bets.length;
+    }
+
+    /**
+     * @return how many bets the seat makes
+     */
+    public int getTurns(int seat) {
+        return seat < 0 || seat >= bets.length ? 0 : bets[seat].length;
+    }
+
+    /**
+     * @param turn 0 for the seat's first bet
+     * @return the bet in minor units, 0 once the seat has no bet left
+     */
+    public long getBet(int seat, int turn) {
+        return turn < getTurns(seat) ? bets[seat][turn] : 0;
+    }
+}
@@ -1,22 +1,48 @@
 package gameImplementations.poker.texasHoldem;
 
 import deck.Card;
+import deck.CardId;
+import deck.CardSet;
 import game.Hand;
+import game.metrics.Counter;
+import game.metrics.Metrics;
+import gameImplementations.poker.HandDescription;
+import gameImplementations.poker.HandEvaluator;
 import gameImplementations.poker.PokerHandAnalyzer;
+import gameImplementations.poker.StreamingHandAnalyzer;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
+/**
+ * A poker hand that keeps its evaluation state up to date as cards arrive:
+ * {@link #addCard(Card)} updates the rank/suit histograms behind
+ * {@link #getStrength()} and the packed state behind {@link #getRank()} in
+ * constant time, so asking for the strength after every street never
+ * re-sorts or recounts the cards.
+ */
 public class HoldemHand implements Hand, Comparable<HoldemHand>{
+    // The counter PokerHandAnalyzer counts its evaluations with
+    private static final Counter EVALUATIONS = Metrics.counter("strength.evaluations");
 
     protected List<Card> cards;
+    private boolean isSorted;
+    private long cardMask;
+    // HandEvaluator packed state of the distinct known cards
+    private long rankCounts;
+    private long suitRanks;
+    private int distinctCards;
+    // Created on the first strength request, then fed every new card
+    private StreamingHandAnalyzer histogram;
     private double strength;
     private boolean isStrengthUpToDate;
 
     public HoldemHand() {
-        cards = new LinkedList<>();
+        cards = new ArrayList<>();
+        isSorted = true;
+        cardMask = CardSet.EMPTY;
         strength = 0;
         isStrengthUpToDate = false;
     }
@@ -24,31 +50,94 @@ public class HoldemHand implements Hand, Comparable<HoldemHand>{
     public HoldemHand(Collection<Card>... cardCols){
         this();
         for(Collection<Card> cardCol : cardCols){
-            cards.addAll(cardCol);
+            for (Card card : cardCol){
+                addCard(card);
+            }
         }
 	}
 
     @Override
     public boolean addCard(Card card) {
         isStrengthUpToDate = false;
+        isSorted = false;
+        int id = CardId.of(card);
+        if (id != CardId.NONE && !CardSet.contains(cardMask, id)) {
+            cardMask = CardSet.with(cardMask, id);
+            rankCounts += HandEvaluator.rankCountOf(id);
+            suitRanks |= HandEvaluator.suitRankOf(id);
+            distinctCards++;
+        }
+        if (histogram != null) {
+            histogram.add(card);
+        }
         return cards.add(card);
     }
 
+    /**
+     * @return the hand's known cards as a {@link CardSet} mask
+     */
+    public long getCardMask() {
+        return cardMask;
+    }
+
+    public int getCardCount() {
+        return cards.size();
+    }
+
     public List<Card> getCards() {
-        Collections.sort(cards);
+        if (!isSorted) {
+            Collections.sort(cards);
+            isSorted = true;
+        }
         return cards;
 	}
 	
+	/**
+	 * Same value as {@link PokerHandAnalyzer#getStrength(HoldemHand)}. While the
+	 * analyzer shares strengths through a cache or a table the hand asks it,
+	 * otherwise it reads the strength off its own histograms, which is as fast
+	 * as computing gets; either way the evaluation is counted in the metrics.
+	 */
 	public double getStrength(){
         if (!isStrengthUpToDate){
-            strength = PokerHandAnalyzer.getStrength(this);
+            if (PokerHandAnalyzer.isStrengthShared()) {
+                strength = PokerHandAnalyzer.getStrength(this);
+                isStrengthUpToDate = true;
+                return strength;
+            }
+            EVALUATIONS.increment();
+            if (histogram == null) {
+                histogram = new StreamingHandAnalyzer();
+                for (int i = 0; i < cards.size(); i++) {
+                    histogram.add(cards.get(i));
+                }
+            }
+            strength = histogram.getStrength();
             isStrengthUpToDate = true;
         }
         return strength;
     }
 
+    /**
+     * @return the {@link HandEvaluator} rank of the hand's known cards, higher is better
+     */
+    public int getRank(){
+        if (distinctCards > HandEvaluator.MAX_CARDS) {
+            throw new IllegalStateException("Cannot rank " + distinctCards + " cards, at most " + HandEvaluator.MAX_CARDS);
+        }
+        return HandEvaluator.evaluate(rankCounts, suitRanks, distinctCards);
+    }
+
     public String getDescription(){
-        return PokerHandAnalyzer.getDescription(getStrength());
+        return distinctCards == cards.size() && distinctCards <= HandEvaluator.MAX_CARDS ?
+                HandDescription.describe(getRank()) :
+                PokerHandAnalyzer.getDescription(getStrength());
+    }
+
+    @Override
+    public String describe(List<Card> board) {
+        HoldemHand hand = new HoldemHand(board, cards);
+        return cards + " | " + hand.getDescription() + " | " + hand.getStrength();
     }
 
 	@Override
@@ -0,0 +1,74 @@
+package gameImplementations.poker.texasHoldem;
+
+import deck.Card;
+import gameImplementations.poker.Pot;
+import participants.Player;
+
+import java.util.List;
+
+/**
+ * Receives what happens while {@link TexasHoldem#dealGame()} runs. Every
+ * method does nothing by default, so the engine stays silent unless a
+ * listener that reports is installed, e.g. {@link PrintingHoldemListener}.
+ */
+public interface HoldemListener {
+
+    HoldemListener NONE = new HoldemListener() {};
+
+    /**
+     * The all in actions say what the player's last chips did: called, or
+     * fell short of calling; bet; or raised, even by less than a full raise.
+     * History files store the ordinals, so new actions go at the end.
+     */
+    enum Action {
+        ANTE, SMALL_BLIND, BIG_BLIND, CHECK, CALL, FOLD, ALL_IN_CALL, BET, RAISE, ALL_IN_BET, ALL_IN_RAISE;
+
+        public boolean isAllIn() {
+            return this == ALL_IN_CALL || this == ALL_IN_BET || this == ALL_IN_RAISE;
+        }
+
+        /**
+         * @return whether the action bets or raises
+         */
+        public boolean isAggressive() {
+            return this == BET || this == RAISE || this == ALL_IN_BET || this == ALL_IN_RAISE;
+        }
+    }
+
+    /**
+     * The hole cards are dealt and the antes are about to be reported.
+     *
+     * @param players the players in the hand, in seating order
+     */
+    default void handDealt(List<Player> players) {}
+
+    /**
+     * @param board every public card so far
+     */
+    default void streetOpened(TexasHoldem.Street street, List<Card> board) {}
+
+    /**
+     * Amounts here and below are in {@link game.Chips} minor units.
+     *
+     * @param bet the player's total bet on the street after acting
+     */
+    default void actionTaken(Player player, Action action, long bet) {}
+
+    /**
+     * A bet that was neither a call nor a legal raise was turned into a call.
+     *
+     * @param correction chips taken back (positive) or added (negative)
+     */
+    default void betCorrected(Player player, long call, long correction) {}
+
+    default void handShown(Player player, List<Card> board) {}
+
+    default void potAwarded(Player player, long winnings, Pot pot) {}
+
+    default void rakeTaken(Pot pot, long rake) {}
+
+    /**
+     * Every pot is settled.
+     */
+    default void handFinished() {}
+}
@@ -0,0 +1,131 @@
+package gameImplementations.poker.texasHoldem;
+
+import game.Chips;
+import game.Settlement;
+import participants.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays scripted hands through {@link TexasHoldem#dealGame()} back to back
+ * and measures the throughput. Hands run silently unless a listener is set.
+ */
+public class HoldemSimulation {
+
+    private final double ante;
+    private final double smallBlind;
+    private final double bigBlind;
+    private final double rake;
+    private final double cap;
+    private HoldemListener listener = HoldemListener.NONE;
+
+    public HoldemSimulation(double ante, double smallBlind, double bigBlind, double rake, double cap) {
+        this.ante = ante;
+        this.smallBlind = smallBlind;
+        this.bigBlind = bigBlind;
+        this.rake = rake;
+        this.cap = cap;
+    }
+
+    public void setListener(HoldemListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Deals the same scripted hand over and over.
+     */
+    public Report run(List<Player> seats, Map<Player, List<Double>> script, int hands) {
+        return run(seats, BetScript.of(seats, script), hands);
+    }
+
+    /**
+     * Deals the same scripted hand over and over.
+     */
+    public Report run(List<Player> seats, BetScript script, int hands) {
+        long rakeTaken = 0;
+        long paidOut = 0;
+        long start = System.nanoTime();
+        for (int hand = 0; hand < hands; hand++) {
+            Settlement settlement = newGame(seats, script).playHand();
+            rakeTaken += settlement.getRake();
+            paidOut += settlement.getPaidOut();
+        }
+        return new Report(hands, System.nanoTime() - start, rakeTaken, paidOut);
+    }
+
+    /**
+     * Deals one hand per script, every hand with the same seating. Scripts map
+     * each player to the bets it makes in turn.
+     */
+    public Report run(List<Player> seats, List<Map<Player, List<Double>>> scripts) {
+        long rakeTaken = 0;
+        long paidOut = 0;
+        long start = System.nanoTime();
+        for (Map<Player, List<Double>> script : scripts) {
+            Settlement settlement = newGame(seats, script).playHand();
+            rakeTaken += settlement.getRake();
+            paidOut += settlement.getPaidOut();
+        }
+        return new Report(scripts.size(), System.nanoTime() - start, rakeTaken, paidOut);
+    }
+
+    /**
+     * @return a game of one hand that replays the script, reporting to the listener
+     */
+    public TexasHoldem newGame(List<Player> seats, Map<Player, List<Double>> script) {
+        return newGame(seats, BetScript.of(seats, script));
+    }
+
+    /**
+     * @return a game of one hand that replays the script, reporting to the listener;
+     * hands never change a script, so it needs no copy
+     */
+    public TexasHoldem newGame(List<Player> seats, BetScript script) {
+        TexasHoldem game = new TexasHoldem(new ArrayList<>(seats), ante, smallBlind, bigBlind, rake, cap, script);
+        game.setListener(listener);
+        return game;
+    }
+
+    public static class Report {
+        private final int hands;
+        private final long elapsedNanos;
+        // Chips in minor units, see Chips
+        private final long rake;
+        private final long paidOut;
+
+        private Report(int hands, long elapsedNanos, long rake, long paidOut) {
+            this.hands = hands;
+            this.elapsedNanos = elapsedNanos;
+            this.rake = rake;
+            this.paidOut = paidOut;
+        }
+
+        public int getHands() {
+            return hands;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getHandsPerSecond() {
+            return elapsedNanos == 0 ? 0 : hands * 1e9 / elapsedNanos;
+        }
+
+        public long getRake() {
+            return rake;
+        }
+
+        public long getPaidOut() {
+            return paidOut;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d hands in %.1f ms (%.0f hands/s), paid out %s, rake %s",
+                    hands, elapsedNanos / 1e6, getHandsPerSecond(), Chips.toString(paidOut), Chips.toString(rake));
+        }
+    }
+}
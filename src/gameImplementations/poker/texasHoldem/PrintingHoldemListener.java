@@ -0,0 +1,89 @@
+package gameImplementations.poker.texasHoldem;
+
+import deck.Card;
+import game.Chips;
+import gameImplementations.poker.Pot;
+import participants.Player;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Narrates a hand, one line per event, to a console or file stream.
+ */
+public class PrintingHoldemListener implements HoldemListener {
+    private final PrintStream out;
+
+    public PrintingHoldemListener() {
+        this(System.out);
+    }
+
+    public PrintingHoldemListener(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void streetOpened(TexasHoldem.Street street, List<Card> board) {
+        out.println("Street " + street.getStreetName() + ": " + board);
+    }
+
+    @Override
+    public void actionTaken(Player player, Action action, long bet) {
+        String chips = Chips.toString(bet);
+        switch (action) {
+            case ANTE:
+                out.println(player + " posts ante " + chips);
+                break;
+            case SMALL_BLIND:
+                out.println(player + " posts small blind " + chips);
+                break;
+            case BIG_BLIND:
+                out.println(player + " posts big blind " + chips);
+                break;
+            case CHECK:
+                out.println(player + " checks");
+                break;
+            case CALL:
+                out.println(player + " calls " + chips);
+                break;
+            case FOLD:
+                out.println(player + " folds");
+                break;
+            case ALL_IN_CALL:
+                out.println(player + " calls " + chips + " and is all in");
+                break;
+            case BET:
+                out.println(player + " bets " + chips);
+                break;
+            case RAISE:
+                out.println(player + " raises to " + chips);
+                break;
+            case ALL_IN_BET:
+                out.println(player + " bets " + chips + " and is all in");
+                break;
+            case ALL_IN_RAISE:
+                out.println(player + " raises to " + chips + " and is all in");
+                break;
+        }
+    }
+
+    @Override
+    public void betCorrected(Player player, long call, long correction) {
+        out.println(player + " calls " + Chips.toString(call) + ". " + (correction > 0 ? "Take back " : "Add ") + Chips.toString(correction));
+    }
+
+    @Override
+    public void handShown(Player player, List<Card> board) {
+        out.println(player + ": " + player.getHand().describe(board));
+    }
+
+    @Override
+    public void potAwarded(Player player, long winnings, Pot pot) {
+        out.println(player + " wins a " + Chips.toString(pot.getPot()) + " pot.");
+    }
+
+    @Override
+    public void rakeTaken(Pot pot, long rake) {
+        out.println("Dealer takes rake of " + Chips.toString(rake));
+    }
+}
@@ -2,11 +2,18 @@ package gameImplementations.poker.texasHoldem;
 
 import deck.Card;
 import deck.ChooseDeck;
+import game.Chips;
 import game.Game;
 import game.GameEnum;
+import game.Settlement;
+import game.metrics.Counter;
+import game.metrics.Metrics;
+import game.metrics.Timer;
+import deck.CardSet;
+import gameImplementations.poker.BoardEvaluator;
 import gameImplementations.poker.Pot;
+import gameImplementations.poker.SidePots;
 import participants.Player;
-import gameImplementations.poker.PokerHandAnalyzer;
 
 import java.util.*;
 
@@ -16,7 +23,7 @@ import java.util.*;
  */
 public class TexasHoldem implements Game{
 
-    private static enum Street {
+    public static enum Street {
         PRE_FLOP(0, "pre flop"),
         FLOP(3, "flop"),
         TURN(1, "turn"),
@@ -24,6 +31,7 @@ public class TexasHoldem implements Game{
 
         private final int cardsToOpen;
         private final String streetName;
+        private final Timer timer = Metrics.timer("street." + name().toLowerCase(Locale.ROOT));
 
         Street(int cardsToOpen, String streetName) {
             this.cardsToOpen = cardsToOpen;
@@ -33,43 +41,86 @@ public class TexasHoldem implements Game{
         private int getCardsToOpen() {
             return cardsToOpen;
         }
-        private String getStreetName() {
+        public String getStreetName() {
             return streetName;
         }
     }
 
     public static GameEnum GAME_KIND = GameEnum.TEXAS_HOLDEM;
-
-    private final double ANTE;
-    private final double SMALL_BLIND;
-    private final double BIG_BLIND;
-    private final double RAKE;
-    private final double CAP;
+    private static final Counter HANDS_DEALT = Metrics.counter("hands.dealt");
+    private static final Counter CARDS_DEALT = Metrics.counter("cards.dealt");
+    private static final Timer HAND_TIME = Metrics.timer("hand");
+    private static final Timer SHOWDOWN_TIME = Metrics.timer("showdown.settlement");
+    private static final int HOLE_CARDS = 2;
+
+    // Rake rate in parts per RAKE_SCALE
+    private static final long RAKE_SCALE = 1_000_000;
+
+    // Chips in minor units, see Chips
+    private final long ANTE;
+    private final long SMALL_BLIND;
+    private final long BIG_BLIND;
+    private final long RAKE;
+    private final long CAP;
 
     private ChooseDeck deck;
     protected List<Player> playersInHand;
-    private List<Pot> pots;
-    private Player first;
+    private SidePots pots;
+    private final Player first;
+    private List<Player> seating;
+    private HoldemListener listener = HoldemListener.NONE;
+    private final BoardEvaluator showdown = new BoardEvaluator();
+
+    // The players as listed to the constructor, the seats of the script
+    private final List<Player> scriptSeats;
+    private final BetScript script;
+
+    // By seat: the seats still betting, neither folded nor all in, linked in the order they act
+    private int[] nextToAct;
+    private int[] previousToAct;
+    private boolean[] leftBetting;
+    private int inBetting;
+    private int actor;
+    // Seat that opens the betting after the flop, -1 if the first player listed sat out
+    private int firstSeat;
+    // By seat: its seat in the script, and how many scripted bets it has made
+    private int[] scriptSeat;
+    private int[] turns;
+    // By seat: whether it has acted since the last full raise, and may only call or fold an all in short of one
+    private boolean[] acted;
 
     public TexasHoldem(List<Player> playersInHand, double ante, double smallBlind, double bigBlind, double rake, double cap){
-        this(playersInHand, ante, smallBlind, bigBlind, rake, cap, null);
+        this(playersInHand, ante, smallBlind, bigBlind, rake, cap, BetScript.NONE);
     }
 
-    private  Map<Player, List<Double>> bets;
-
     public TexasHoldem(List<Player> playersInHand, double ante, double smallBlind, double bigBlind, double rake, double cap, Map<Player, List<Double>> bets){
+        this(playersInHand, ante, smallBlind, bigBlind, rake, cap,
+                bets == null ? BetScript.NONE : BetScript.of(playersInHand, bets));
+    }
+
+    /**
+     * @param script the players' bets, seat by seat in the order the players are listed
+     */
+    public TexasHoldem(List<Player> playersInHand, double ante, double smallBlind, double bigBlind, double rake, double cap, BetScript script){
         this.playersInHand = playersInHand;
 
-        this.ANTE = ante;
-        this.SMALL_BLIND = smallBlind;
-        this.BIG_BLIND = bigBlind;
-        this.RAKE = rake;
-        this.CAP = cap;
+        this.ANTE = Chips.of(ante);
+        this.SMALL_BLIND = Chips.of(smallBlind);
+        this.BIG_BLIND = Chips.of(bigBlind);
+        this.RAKE = Math.round(rake * RAKE_SCALE);
+        this.CAP = Chips.of(cap);
 
-        pots = new LinkedList<>();
         first = playersInHand.get(0); //    Player dealer = getDealer(); // eyes.getDealer();
 
-        this.bets = bets;
+        this.scriptSeats = new ArrayList<>(playersInHand);
+        this.script = script;
+    }
+
+    /**
+     * Reports the hand's events to the listener; by default nothing is reported.
+     */
+    public void setListener(HoldemListener listener) {
+        this.listener = listener;
     }
 
     @Override
@@ -79,21 +130,19 @@ public class TexasHoldem implements Game{
 
     private Player initHand() {
         deck = new ChooseDeck();
-        pots.clear();
-        pots.add(new Pot(getPlayersInHand()));
+        seating = new ArrayList<>(sitOutShortStacks());
+        pots = new SidePots(seating.size());
+        seatPlayers();
+        dealHand(seating);
+        listener.handDealt(playersInHand);
         postAntes();
-        dealHand(getActivePot().getPlayers());
         return postBlinds();
     }
 
-    private List<Player> postAntes() {
+    private List<Player> sitOutShortStacks() {
         Set<Player> notInHand = new HashSet<>();
         for (Player player : getPlayersInHand()){
-            if (player.getStack() >= ANTE + BIG_BLIND){
-                player.bet(ANTE);
-                addToPot(ANTE);
-            } else {
-                removeFromPots(player);
+            if (Chips.of(player.getStack()) < ANTE + BIG_BLIND){
                 notInHand.add(player);
             }
         }
@@ -101,11 +150,43 @@ public class TexasHoldem implements Game{
         return playersInHand;
     }
 
+    /**
+     * Links every seat to the next in the order of play, and finds its bets in the script.
+     */
+    private void seatPlayers() {
+        int seats = seating.size();
+        nextToAct = new int[seats];
+        previousToAct = new int[seats];
+        leftBetting = new boolean[seats];
+        scriptSeat = new int[seats];
+        turns = new int[seats];
+        acted = new boolean[seats];
+        for (int seat = 0; seat < seats; seat++) {
+            nextToAct[seat] = (seat + 1) % seats;
+            previousToAct[seat] = (seat + seats - 1) % seats;
+            scriptSeat[seat] = indexOf(scriptSeats, seating.get(seat));
+        }
+        inBetting = seats;
+        firstSeat = indexOf(seating, first);
+    }
+
+    private void postAntes() {
+        if (ANTE > 0) {
+            for (int seat = 0; seat < seating.size(); seat++) {
+                Player player = seating.get(seat);
+                player.bet(Chips.toChips(ANTE));
+                player.takeBet(); // Antes go straight to the pot
+                addToPot(seat, ANTE);
+                listener.actionTaken(player, HoldemListener.Action.ANTE, ANTE);
+            }
+        }
+    }
+
     private boolean dealHand(Collection<Player> players){
         for(Player player : players){
-            player.initHand(GAME_KIND);
+            player.initHand(getGameKind());
         }
-        for(int i = 0 ; i < 2; i++){
+        for(int i = 0 ; i < getHoleCards(); i++){
             for(Player player : players){
                 if (!player.receiveCard(deal())){
                     return false; // Misdeal
@@ -123,19 +204,34 @@ public class TexasHoldem implements Game{
         return deck.deal(cardsToDeal);
     }
 
-    private void addToPot(double chips) {
-        getActivePot().addToPot(chips);
+    private void addToPot(int seat, long chips) {
+        pots.contribute(seat, chips);
+    }
+
+    /**
+     * @return the player's index in the list, -1 if it is not listed
+     */
+    private static int indexOf(List<Player> players, Player player) {
+        for (int seat = 0; seat < players.size(); seat++) {
+            if (players.get(seat) == player) {
+                return seat;
+            }
+        }
+        return -1;
     }
 
     private Player postBlinds() {
-        Player sb = playersInHand.remove(0);
-        sb.bet(SMALL_BLIND);
-        addToPot(SMALL_BLIND);
-        playersInHand.add(sb);
-        Player bb = playersInHand.remove(0);
-        bb.bet(BIG_BLIND);
-        addToPot(BIG_BLIND);
-        playersInHand.add(bb);
+        Player sb = seating.get(0);
+        sb.bet(Chips.toChips(SMALL_BLIND));
+        addToPot(0, SMALL_BLIND);
+        listener.actionTaken(sb, HoldemListener.Action.SMALL_BLIND, SMALL_BLIND);
+        // A player alone at the table posts both blinds
+        int bbSeat = nextToAct[0];
+        Player bb = seating.get(bbSeat);
+        bb.bet(Chips.toChips(BIG_BLIND));
+        addToPot(bbSeat, BIG_BLIND);
+        listener.actionTaken(bb, HoldemListener.Action.BIG_BLIND, BIG_BLIND);
+        actor = nextToAct[bbSeat];
         return bb;
     }
 
@@ -144,128 +240,244 @@ public class TexasHoldem implements Game{
      */
     @Override
     public Map<Player, Double> dealGame(){
+        return playHand().toMap();
+    }
+
+    /**
+     * Players who are all in leave the betting but stay in the hand; the
+     * pots they can win are built from what everyone put in once the
+     * betting is over.
+     *
+     * @return winnings by seat, seat 0 being the first player after the dealer
+     */
+    @Override
+    public Settlement playHand(){
+        long handStart = HAND_TIME.sample();
         List<Card> board = new LinkedList<>();
 
-        Player raiser = initHand(); // Straddle and Stuff
-        double toCall = BIG_BLIND;
+        initHand(); // Straddle and Stuff
+        long toCall = BIG_BLIND;
+        int live = seating.size();
+        // Pre flop the big blind closes the betting unless someone raises
+        int toAct = inBetting - 1;
+        // Pre flop is timed from the deal, every street from the end of the one before
+        long streetStart = handStart;
         for (Street street : Street.values()){
             board.addAll(openStreet(street));
-            System.out.println("Street " + street.getStreetName() + ": " + board);
+            listener.streetOpened(street, board);
 
-            double minRaise = BIG_BLIND;
-            while (playersInHand.get(0) != raiser || playersInHand.get(0).getBet() == null) {
-                Player current = playersInHand.remove(0);
+            long minRaise = BIG_BLIND;
+            Arrays.fill(acted, false);
+            while (toAct > 0 && live > 1) {
+                int seat = actor;
+                Player current = seating.get(seat);
+                toAct--;
 
                 // change to external trigger input
                 // double bet = eyes.getBetFromGesture(current); // Single forward motion - Include change giving
-                double bet = bets.get(current).isEmpty() ? 0 : bets.get(current).remove(0);
-                double currentBet = ((current.getBet() == null) ? 0 : current.getBet()) + Math.min(current.getStack(), bet);
+                long bet = script.getBet(scriptSeat[seat], turns[seat]++);
+                long stack = Chips.of(current.getStack());
+                boolean allIn = bet > 0 && bet >= stack;
+                bet = Math.min(stack, bet);
+                long currentBet = ((current.getBet() == null) ? 0 : Chips.of(current.getBet())) + bet;
+                if (acted[seat] && currentBet > toCall) {
+                    // A short all in does not reopen the raising
+                    listener.betCorrected(current, toCall, currentBet - toCall);
+                    bet -= currentBet - toCall;
+                    currentBet = toCall;
+                    allIn = bet == stack;
+                }
 
-                double raise = currentBet - toCall;
+                long raise = currentBet - toCall;
                 if (raise < minRaise) { // Non Raise
                     if (raise == 0) { // Check / Call
-                        current.bet(currentBet);
-                        playersInHand.add(current);
+                        current.bet(Chips.toChips(currentBet));
+                        acted[seat] = true;
+                        if (allIn) {
+                            leaveBetting(seat);
+                        } else {
+                            passAction(seat);
+                        }
 
-                        System.out.println(current.toString() + ((currentBet == 0) ? " checks" : (" calls " + currentBet)));
+                        listener.actionTaken(current, allIn ? HoldemListener.Action.ALL_IN_CALL :
+                                (currentBet == 0) ? HoldemListener.Action.CHECK : HoldemListener.Action.CALL, currentBet);
                     } else if (bet == 0) { // Fold
                         current.muckHand();
-                        removeFromPots(current);
-                        if (current == first){
-                            first = playersInHand.get(0);
-                        }
+                        pots.fold(seat);
+                        leaveBetting(seat);
+                        live--;
 
-                        System.out.println(current.toString() + " folds");
+                        listener.actionTaken(current, HoldemListener.Action.FOLD, currentBet);
                     } else { // Caution
-                        if (current.isAllIn()) { // Split Pot
-                            System.out.println(current.toString() + " calls " + "?" + " and is all in");
-                            current.bet(currentBet);
+                        if (allIn) { // Side Pot
+                            listener.actionTaken(current, currentBet <= toCall ? HoldemListener.Action.ALL_IN_CALL :
+                                    (toCall == 0) ? HoldemListener.Action.ALL_IN_BET : HoldemListener.Action.ALL_IN_RAISE, currentBet);
+                            current.bet(Chips.toChips(currentBet));
+                            leaveBetting(seat);
+                            if (currentBet > toCall) {
+                                // Everyone still betting is now short of the call, and may call or fold
+                                toAct = inBetting;
+                                toCall = currentBet;
+                            }
                         } else { // Bad bet
-                            System.out.println(current.toString() + " calls " + toCall + ". " +
-                                              (raise > 0 ? "Take back " : "Add ") + raise);
+                            listener.betCorrected(current, toCall, raise);
                             bet -= raise;
-                            current.bet(toCall); // current.bet(bet)
-                            playersInHand.add(current);
+                            current.bet(Chips.toChips(toCall)); // current.bet(bet)
+                            acted[seat] = true;
+                            passAction(seat);
                         }
                     }
                 } else { // Legal Raise - Original raiser can't re-raise the all in
                     minRaise = currentBet - minRaise;
-                    current.bet(currentBet);
-                    raiser = current;
-                    playersInHand.add(current);
+                    current.bet(Chips.toChips(currentBet));
+                    Arrays.fill(acted, false);
+                    acted[seat] = true;
+                    if (allIn) {
+                        leaveBetting(seat);
+                    } else {
+                        passAction(seat);
+                    }
+                    // Everyone else acts again
+                    toAct = allIn ? inBetting : inBetting - 1;
 
-                    System.out.println(current.toString() + ((toCall == 0) ? " bets " : " raises to ") + currentBet);
+                    listener.actionTaken(current, (toCall == 0) ?
+                            (allIn ? HoldemListener.Action.ALL_IN_BET : HoldemListener.Action.BET) :
+                            (allIn ? HoldemListener.Action.ALL_IN_RAISE : HoldemListener.Action.RAISE), currentBet);
 
                     toCall = currentBet;
                 }
-                addToPot(bet);
+                addToPot(seat, bet);
             }
-            if (playersInHand.size() > 1) { // Hand isn't over
-                for (Player player : playersInHand){
+            streetStart = street.timer.stop(streetStart);
+            if (live > 1) { // Hand isn't over
+                for (Player player : seating){
                     player.takeBet(); // Take bets to Pot
                 }
                 toCall = 0;
                 validateDealer();
-                raiser = first;
+                // Nobody bets against players who are all in
+                toAct = inBetting > 1 ? inBetting : 0;
             } else { // Hand is over
-                System.out.println(playersInHand.get(0) + " wins " + getActivePot().getPot() + " pot.");
                 break;
             }
         }
         // SHOWDOWN
-        System.out.println("Showdown:");
-        for (Player player : playersInHand){
-            HoldemHand hand = new HoldemHand(board, player.getHand().getCards());
-            System.out.println(player.toString() + ": " + player.getHand().getCards() + " | " +  hand.getDescription() + " | " + hand.getStrength());
+        int[] ranks = new int[seating.size()];
+        long boardMask = CardSet.maskOf(board);
+        for (int seat = 0; seat < seating.size(); seat++){
+            if (!pots.isFolded(seat)) {
+                Player player = seating.get(seat);
+                listener.handShown(player, board);
+                ranks[seat] = rankHand(boardMask, player);
+            }
         }
 
-        Map<Player, Double> payup = new HashMap<>();
-
-        for(Pot pot : pots){
-            double rakeFromPot = getRake(pot);
-            pot.takeRake(rakeFromPot);
-            payup.put(null, (payup.containsKey(null) ? payup.get(null) : 0) + rakeFromPot);
-            Set<Player> potWinners = PokerHandAnalyzer.getWinner(board, new HashSet<>(pot.getPlayers()));
-            for (Player potWinner : potWinners){
-                payup.put(potWinner, (payup.containsKey(potWinner) ? payup.get(potWinner) : 0) + pot.getWinnings(potWinners.size()));
-                System.out.println(potWinner + " wins a " + pot.getPot() + " pot.");
+        Settlement payup = new Settlement(seating);
+        pots.build();
+        // The rake is capped once a hand, over the pots more than one player may win
+        long rake = getRake(pots.getContested());
+        pots.takeRake(rake);
+        payup.takeRake(rake);
+        Pot[] potsWon = new Pot[pots.getPots()];
+        for (int pot = 0; pot < potsWon.length; pot++) {
+            List<Player> eligible = new ArrayList<>();
+            for (int seat = 0; seat < seating.size(); seat++) {
+                if (pots.isEligible(pot, seat)) {
+                    eligible.add(seating.get(seat));
+                }
+            }
+            potsWon[pot] = new Pot(eligible);
+            potsWon[pot].addToPot(pots.getAmount(pot));
+            if (pots.isContested(pot)) {
+                listener.rakeTaken(potsWon[pot], pots.getRake(pot));
             }
         }
-        System.out.println("Dealer takes rake of " + payup.get(null));
+        pots.settle(ranks, (pot, seat, winnings) -> {
+            payup.award(seat, winnings);
+            listener.potAwarded(seating.get(seat), winnings, potsWon[pot]);
+        });
+        SHOWDOWN_TIME.stop(streetStart);
+        listener.handFinished();
+        HANDS_DEALT.increment();
+        CARDS_DEALT.add(deck.cardsDealt());
+        HAND_TIME.stop(handStart);
         finishHand();
         return payup;
     }
 
-    private void finishHand() {
-        for (Player playerInHand : getPlayersInHand()){
-            playerInHand.muckHand();
+    protected GameEnum getGameKind() {
+        return GAME_KIND;
+    }
+
+    protected int getHoleCards() {
+        return HOLE_CARDS;
+    }
+
+    /**
+     * @return the {@link gameImplementations.poker.HandEvaluator} rank of the player's
+     * hand at showdown, higher is better
+     */
+    protected int rankHand(long boardMask, Player player) {
+        if (showdown.getBoardMask() != boardMask) {
+            showdown.setBoard(boardMask);
         }
-        deck = null;
-        pots = null;
+        return showdown.evaluate(CardSet.maskOf(player.getHand().getCards()));
+    }
+
+    /**
+     * Passes the action on from a player who stays in the betting.
+     */
+    private void passAction(int seat) {
+        actor = nextToAct[seat];
     }
 
-    private void removeFromPots(Player folder) {
-        for (Pot pot : pots){
-            pot.removeFromPot(folder);
+    /**
+     * Takes a player who folded or is all in out of the betting order and passes the action on.
+     */
+    private void leaveBetting(int seat) {
+        int next = nextToAct[seat];
+        int previous = previousToAct[seat];
+        nextToAct[previous] = next;
+        previousToAct[next] = previous;
+        leftBetting[seat] = true;
+        inBetting--;
+        actor = next;
+        if (seat == firstSeat && inBetting > 0) {
+            firstSeat = next;
         }
     }
 
-    private List<Card> openStreet(Street street) {
-        return deal(street.getCardsToOpen());
+    private void finishHand() {
+        for (Player player : seating){
+            player.takeBet();
+            player.muckHand();
+        }
+        deck = null;
+        pots = null;
+        seating = null;
     }
 
-    private Pot getActivePot() {
-        return pots.get(pots.size() - 1);
+    private List<Card> openStreet(Street street) {
+        return deal(street.getCardsToOpen());
     }
 
+    /**
+     * Gives the action to the first player after the dealer still betting.
+     */
     private void validateDealer() {
-        while (playersInHand.get(0) != first) {
-            Player pl = playersInHand.remove(0);
-            playersInHand.add(pl);
+        if (firstSeat >= 0 && !leftBetting[firstSeat]) {
+            actor = firstSeat;
         }
     }
 
-    public double getRake(Pot pot){
-        return Math.min(CAP, pot.getPot() * RAKE);
+    public long getRake(Pot pot){
+        return getRake(pot.getPot());
 	}
+
+    /**
+     * @param pot units more than one player may win
+     */
+    public long getRake(long pot){
+        return Math.min(CAP, Chips.portion(pot, RAKE, RAKE_SCALE));
+    }
 }
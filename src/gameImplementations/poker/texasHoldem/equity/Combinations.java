@@ -0,0 +1,59 @@
+package gameImplementations.poker.texasHoldem.equity;
+
+import deck.CardId;
+
+/**
+ * k-combinations of n items in colexicographic order, addressed by their
+ * index in that order so that ranges of combinations can be handed to
+ * separate tasks.
+ */
+final class Combinations {
+    private static final long[][] BINOMIAL = new long[CardId.COUNT + 1][CardId.COUNT + 1];
+
+    static {
+        for (int n = 0; n <= CardId.COUNT; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    private Combinations() {
+    }
+
+    static long count(int n, int k) {
+        return (k < 0 || k > n) ? 0 : BINOMIAL[n][k];
+    }
+
+    /**
+     * Fills {@code combo} with the combination at {@code index}, items ascending.
+     */
+    static void unrank(long index, int n, int[] combo) {
+        int upper = n;
+        for (int i = combo.length - 1; i >= 0; i--) {
+            int item = upper - 1;
+            while (count(item, i + 1) > index) {
+                item--;
+            }
+            combo[i] = item;
+            index -= count(item, i + 1);
+            upper = item;
+        }
+    }
+
+    /**
+     * Advances {@code combo} to the next combination; past the last one the
+     * highest item becomes {@code n}.
+     */
+    static void next(int[] combo) {
+        int i = 0;
+        while (i < combo.length - 1 && combo[i] + 1 == combo[i + 1]) {
+            combo[i] = i;
+            i++;
+        }
+        if (combo.length > 0) {
+            combo[i]++;
+        }
+    }
+}
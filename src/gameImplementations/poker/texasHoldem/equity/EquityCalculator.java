@@ -0,0 +1,222 @@
+package gameImplementations.poker.texasHoldem.equity;
+
+import deck.Card;
+import deck.CardSet;
+import deck.SuitIsomorphism;
+import gameImplementations.poker.BoardEvaluator;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hold'em equity of players with known hole cards, given the known part of
+ * the board and any dead cards. All work runs on a {@link ForkJoinPool} and
+ * per task results are merged at the end.
+ * <ul>
+ *     <li>{@link #monteCarlo} samples runouts from the cards no one holds;
+ *     every task draws from its own split of the calculator's random generator.</li>
+ *     <li>{@link #enumerate} walks every possible runout exactly once, splitting
+ *     the range of board completions into tasks that idle workers steal. When
+ *     renaming suits leaves the known cards as they are, only one runout of
+ *     each set the renamings map onto each other is settled, counted once
+ *     per runout in the set.</li>
+ * </ul>
+ */
+public class EquityCalculator {
+    private static final int TASKS_PER_WORKER = 4;
+    private static final int DEADLINE_CHECK_INTERVAL = 1 << 10;
+    private static final long MIN_RUNOUTS_PER_TASK = 1 << 10;
+
+    private final ForkJoinPool pool;
+    private final SplittableRandom random;
+
+    public EquityCalculator() {
+        this(ForkJoinPool.commonPool(), new SplittableRandom());
+    }
+
+    public EquityCalculator(ForkJoinPool pool, SplittableRandom random) {
+        this.pool = pool;
+        this.random = random;
+    }
+
+    /**
+     * Samples a fixed number of runouts.
+     */
+    public EquityResult monteCarlo(List<? extends List<Card>> holeCards, List<Card> board, List<Card> deadCards,
+                                   long samples) {
+        return monteCarlo(new Showdown(holeCards, board, deadCards), samples, false, 0);
+    }
+
+    /**
+     * Samples as many runouts as the pool manages within the time budget.
+     */
+    public EquityResult monteCarlo(List<? extends List<Card>> holeCards, List<Card> board, List<Card> deadCards,
+                                   long budget, TimeUnit unit) {
+        Showdown showdown = new Showdown(holeCards, board, deadCards);
+        return monteCarlo(showdown, Long.MAX_VALUE, true, System.nanoTime() + unit.toNanos(budget));
+    }
+
+    /**
+     * Counts every possible completion of the board.
+     */
+    public EquityResult enumerate(List<? extends List<Card>> holeCards, List<Card> board, List<Card> deadCards) {
+        return enumerate(new Showdown(holeCards, board, deadCards));
+    }
+
+    /**
+     * Enumerates when there are at most {@code maxSamples} runouts left, samples that many otherwise.
+     */
+    public EquityResult calculate(List<? extends List<Card>> holeCards, List<Card> board, List<Card> deadCards,
+                                  long maxSamples) {
+        Showdown showdown = new Showdown(holeCards, board, deadCards);
+        return getRunouts(showdown) <= maxSamples ?
+                enumerate(showdown) :
+                monteCarlo(showdown, maxSamples, false, 0);
+    }
+
+    /**
+     * @return the number of distinct board completions
+     */
+    public static long getRunouts(int remainingCards, int cardsToCome) {
+        return Combinations.count(remainingCards, cardsToCome);
+    }
+
+    private static long getRunouts(Showdown showdown) {
+        return getRunouts(showdown.remaining.length, showdown.cardsToCome);
+    }
+
+    private EquityResult enumerate(Showdown showdown) {
+        long runouts = getRunouts(showdown);
+        long rangeSize = Math.max(MIN_RUNOUTS_PER_TASK, runouts / (pool.getParallelism() * TASKS_PER_WORKER * 4L));
+        long start = System.nanoTime();
+        EquityResult result = pool.invoke(new EnumerationTask(showdown, 0, runouts, rangeSize));
+        result.finish(System.nanoTime() - start, true);
+        return result;
+    }
+
+    private EquityResult monteCarlo(Showdown showdown, long samples, boolean timed, long deadline) {
+        // Timed tasks all run until the deadline, so one per worker is enough
+        int tasks = timed ? pool.getParallelism() : pool.getParallelism() * TASKS_PER_WORKER;
+        SplittableRandom taskRandom;
+        synchronized (random) {
+            taskRandom = random.split();
+        }
+        long start = System.nanoTime();
+        EquityResult result = pool.invoke(new MonteCarloTask(showdown, samples, timed, deadline, tasks, taskRandom));
+        result.finish(System.nanoTime() - start, false);
+        return result;
+    }
+
+    private static class MonteCarloTask extends RecursiveTask<EquityResult> {
+        private final Showdown showdown;
+        private final long samples;
+        private final boolean timed;
+        private final long deadline;
+        private final int tasks;
+        private final SplittableRandom random;
+
+        private MonteCarloTask(Showdown showdown, long samples, boolean timed, long deadline, int tasks,
+                               SplittableRandom random) {
+            this.showdown = showdown;
+            this.samples = samples;
+            this.timed = timed;
+            this.deadline = deadline;
+            this.tasks = tasks;
+            this.random = random;
+        }
+
+        @Override
+        protected EquityResult compute() {
+            if (tasks > 1) {
+                int leftTasks = tasks / 2;
+                long leftSamples = samples == Long.MAX_VALUE ? samples : samples * leftTasks / tasks;
+                long rightSamples = samples == Long.MAX_VALUE ? samples : samples - leftSamples;
+                MonteCarloTask left = new MonteCarloTask(showdown, leftSamples, timed, deadline, leftTasks, random.split());
+                left.fork();
+                EquityResult result = new MonteCarloTask(showdown, rightSamples, timed, deadline, tasks - leftTasks, random).compute();
+                result.merge(left.join());
+                return result;
+            }
+            return sample();
+        }
+
+        private EquityResult sample() {
+            EquityResult result = new EquityResult(showdown.players());
+            int[] deck = showdown.remaining.clone();
+            BoardEvaluator evaluator = new BoardEvaluator();
+            int[] ranks = new int[showdown.players()];
+            int cardsToCome = showdown.cardsToCome;
+            for (long sample = 0; sample < samples; sample++) {
+                if (timed && (sample & (DEADLINE_CHECK_INTERVAL - 1)) == 0 &&
+                        System.nanoTime() - deadline >= 0) {
+                    break;
+                }
+                // Partial Fisher-Yates: the first cardsToCome slots become a uniform draw
+                long board = showdown.boardMask;
+                for (int i = 0; i < cardsToCome; i++) {
+                    int j = i + random.nextInt(deck.length - i);
+                    int card = deck[j];
+                    deck[j] = deck[i];
+                    deck[i] = card;
+                    board |= CardSet.bit(card);
+                }
+                showdown.settle(board, 1, evaluator, ranks, result);
+            }
+            return result;
+        }
+    }
+
+    private static class EnumerationTask extends RecursiveTask<EquityResult> {
+        private final Showdown showdown;
+        private final long from;
+        private final long to;
+        private final long rangeSize;
+
+        private EnumerationTask(Showdown showdown, long from, long to, long rangeSize) {
+            this.showdown = showdown;
+            this.from = from;
+            this.to = to;
+            this.rangeSize = rangeSize;
+        }
+
+        @Override
+        protected EquityResult compute() {
+            if (to - from > rangeSize) {
+                long middle = from + (to - from) / 2;
+                EnumerationTask left = new EnumerationTask(showdown, from, middle, rangeSize);
+                left.fork();
+                EquityResult result = new EnumerationTask(showdown, middle, to, rangeSize).compute();
+                result.merge(left.join());
+                return result;
+            }
+            return enumerate();
+        }
+
+        private EquityResult enumerate() {
+            EquityResult result = new EquityResult(showdown.players());
+            int[] remaining = showdown.remaining;
+            int[] combo = new int[showdown.cardsToCome];
+            BoardEvaluator evaluator = new BoardEvaluator();
+            int[] ranks = new int[showdown.players()];
+            int symmetry = showdown.symmetry;
+            Combinations.unrank(from, remaining.length, combo);
+            for (long index = from; index < to; index++) {
+                long runout = CardSet.EMPTY;
+                for (int i = 0; i < combo.length; i++) {
+                    runout |= CardSet.bit(remaining[combo[i]]);
+                }
+                if (symmetry == SuitIsomorphism.IDENTITY) {
+                    showdown.settle(showdown.boardMask | runout, 1, evaluator, ranks, result);
+                } else if (SuitIsomorphism.isCanonical(runout, symmetry)) {
+                    showdown.settle(showdown.boardMask | runout, SuitIsomorphism.orbitSize(runout, symmetry),
+                            evaluator, ranks, result);
+                }
+                Combinations.next(combo);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package gameImplementations.poker.texasHoldem.equity;
+
+/**
+ * Per player outcome of an equity calculation. A player's equity is the
+ * fraction of samples won outright plus its share of the samples tied.
+ */
+public class EquityResult {
+    private final long[] wins;
+    private final long[] ties;
+    private final double[] tieShares;
+    private long samples;
+    private long elapsedNanos;
+    private boolean exact;
+
+    public EquityResult(int players) {
+        wins = new long[players];
+        ties = new long[players];
+        tieShares = new double[players];
+    }
+
+    public int getPlayers() {
+        return wins.length;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    public long getWins(int player) {
+        return wins[player];
+    }
+
+    public long getTies(int player) {
+        return ties[player];
+    }
+
+    public double getWinRate(int player) {
+        return samples == 0 ? 0 : (double) wins[player] / samples;
+    }
+
+    public double getTieRate(int player) {
+        return samples == 0 ? 0 : (double) ties[player] / samples;
+    }
+
+    public double getEquity(int player) {
+        return samples == 0 ? 0 : (wins[player] + tieShares[player]) / samples;
+    }
+
+    /**
+     * @return true if every possible runout was counted rather than sampled
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getSamplesPerSecond() {
+        return elapsedNanos == 0 ? 0 : samples * 1e9 / elapsedNanos;
+    }
+
+    void record(int player, int winners, int runouts) {
+        if (winners == 1) {
+            wins[player] += runouts;
+        } else {
+            ties[player] += runouts;
+            tieShares[player] += (double) runouts / winners;
+        }
+    }
+
+    void addSamples(int runouts) {
+        samples += runouts;
+    }
+
+    void merge(EquityResult other) {
+        for (int player = 0; player < wins.length; player++) {
+            wins[player] += other.wins[player];
+            ties[player] += other.ties[player];
+            tieShares[player] += other.tieShares[player];
+        }
+        samples += other.samples;
+    }
+
+    void finish(long elapsedNanos, boolean exact) {
+        this.elapsedNanos = elapsedNanos;
+        this.exact = exact;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int player = 0; player < wins.length; player++) {
+            sb.append("Player ").append(player)
+                    .append(": equity ").append(String.format("%.4f", getEquity(player)))
+                    .append(", win ").append(String.format("%.4f", getWinRate(player)))
+                    .append(", tie ").append(String.format("%.4f", getTieRate(player)))
+                    .append('\n');
+        }
+        sb.append(samples).append(exact ? " runouts" : " samples")
+                .append(String.format(" at %.0f/s", getSamplesPerSecond()));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,112 @@
+package gameImplementations.poker.texasHoldem.equity;
+
+import deck.CardSet;
+import gameImplementations.poker.texasHoldem.HoldemHand;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static gameImplementations.poker.texasHoldem.equity.PreflopTableFormat.*;
+
+/**
+ * Preflop equities looked up in a file a {@link PreflopTableGenerator} wrote:
+ * every starting hand class against one to {@value PreflopTableFormat#MAX_OPPONENTS}
+ * random hands, and every combination against every other heads-up. The file
+ * is mapped read only, so opening it only checks the header and a lookup
+ * reads one float; the operating system pages the table in as it is used
+ * and shares it between processes. Safe to use from any number of threads.
+ */
+public final class PreflopTable {
+    public static final int MAX_OPPONENTS = PreflopTableFormat.MAX_OPPONENTS;
+
+    private final ByteBuffer table;
+    private final long classSamples;
+    private final long headsUpSamples;
+
+    private PreflopTable(ByteBuffer table) {
+        this.table = table;
+        classSamples = table.getLong(CLASS_SAMPLES_OFFSET);
+        headsUpSamples = table.getLong(HEADS_UP_SAMPLES_OFFSET);
+    }
+
+    public static PreflopTable open(Path path) throws IOException {
+        ByteBuffer table;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() != FILE_SIZE) {
+                throw new IOException(path + " is " + channel.size() + " bytes, expected " + FILE_SIZE);
+            }
+            table = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_SIZE);
+        }
+        table.order(ORDER);
+        if (table.getInt(MAGIC_OFFSET) != MAGIC) {
+            throw new IOException(path + " is not a preflop equity table");
+        }
+        if (table.getInt(VERSION_OFFSET) != VERSION) {
+            throw new IOException(path + " has version " + table.getInt(VERSION_OFFSET) + ", expected " + VERSION);
+        }
+        if (table.getInt(CLASSES_OFFSET) != StartingHands.CLASSES
+                || table.getInt(OPPONENTS_OFFSET) != PreflopTableFormat.MAX_OPPONENTS
+                || table.getInt(COMBOS_OFFSET) != StartingHands.COMBOS) {
+            throw new IOException(path + " does not have the expected table sizes");
+        }
+        return new PreflopTable(table);
+    }
+
+    /**
+     * @param handClass as in {@link StartingHands#classOf}
+     */
+    public double getEquity(int handClass, int opponents) {
+        if (handClass < 0 || handClass >= StartingHands.CLASSES) {
+            throw new IllegalArgumentException("No starting hand class " + handClass);
+        }
+        if (opponents < 1 || opponents > PreflopTableFormat.MAX_OPPONENTS) {
+            throw new IllegalArgumentException("Table covers 1 to " + PreflopTableFormat.MAX_OPPONENTS
+                    + " opponents, got " + opponents);
+        }
+        return table.getFloat(classEntry(handClass, opponents));
+    }
+
+    /**
+     * @param holeCards a hand of exactly the two hole cards
+     */
+    public double getEquity(HoldemHand holeCards, int opponents) {
+        return getEquity(StartingHands.classOf(holeMask(holeCards)), opponents);
+    }
+
+    /**
+     * @return the first combination's equity against the second, NaN if they share a card
+     */
+    public double getHeadsUpEquity(long holeMask, long otherHoleMask) {
+        return table.getFloat(headsUpEntry(StartingHands.comboOf(holeMask), StartingHands.comboOf(otherHoleMask)));
+    }
+
+    public double getHeadsUpEquity(HoldemHand holeCards, HoldemHand otherHoleCards) {
+        return getHeadsUpEquity(holeMask(holeCards), holeMask(otherHoleCards));
+    }
+
+    /**
+     * @return showdowns sampled for each class entry
+     */
+    public long getClassSamples() {
+        return classSamples;
+    }
+
+    /**
+     * @return runouts sampled for each heads-up entry, 0 if every runout was counted
+     */
+    public long getHeadsUpSamples() {
+        return headsUpSamples;
+    }
+
+    private static long holeMask(HoldemHand holeCards) {
+        long mask = holeCards.getCardMask();
+        // The mask drops cards without an id and repeats, so the count tells them apart
+        if (holeCards.getCardCount() != 2 || CardSet.size(mask) != 2) {
+            throw new IllegalArgumentException("Expected two distinct hole cards, got " + holeCards.getCards());
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,47 @@
+package gameImplementations.poker.texasHoldem.equity;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of a preflop equity table file, all little endian.
+ * <pre>
+ * header     int magic, int version
+ *            int classes, int opponents, int combos, int unused
+ *            long samples per class entry, long samples per heads-up entry (0 when enumerated)
+ * classes    classes x opponents x float equity of the class against 1.. opponents random hands
+ * heads-up   combos x combos x float equity of the row combination against the column one,
+ *            NaN where they share a card
+ * </pre>
+ * Classes and combinations are indexed as in {@link StartingHands}.
+ */
+final class PreflopTableFormat {
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    static final int MAGIC = 0x50464531; // "PFE1"
+    static final int VERSION = 1;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int CLASSES_OFFSET = 8;
+    static final int OPPONENTS_OFFSET = 12;
+    static final int COMBOS_OFFSET = 16;
+    static final int CLASS_SAMPLES_OFFSET = 24;
+    static final int HEADS_UP_SAMPLES_OFFSET = 32;
+    static final int HEADER_SIZE = 40;
+
+    static final int MAX_OPPONENTS = 9;
+    static final int CLASS_TABLE_OFFSET = HEADER_SIZE;
+    static final int HEADS_UP_TABLE_OFFSET =
+            CLASS_TABLE_OFFSET + StartingHands.CLASSES * MAX_OPPONENTS * Float.BYTES;
+    static final int FILE_SIZE =
+            HEADS_UP_TABLE_OFFSET + StartingHands.COMBOS * StartingHands.COMBOS * Float.BYTES;
+
+    private PreflopTableFormat() {}
+
+    static int classEntry(int handClass, int opponents) {
+        return CLASS_TABLE_OFFSET + (handClass * MAX_OPPONENTS + opponents - 1) * Float.BYTES;
+    }
+
+    static int headsUpEntry(int combo, int otherCombo) {
+        return HEADS_UP_TABLE_OFFSET + (combo * StartingHands.COMBOS + otherCombo) * Float.BYTES;
+    }
+}
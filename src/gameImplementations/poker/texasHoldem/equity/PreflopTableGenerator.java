@@ -0,0 +1,170 @@
+package gameImplementations.poker.texasHoldem.equity;
+
+import deck.Card;
+import deck.CardSet;
+import deck.SuitIsomorphism;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static gameImplementations.poker.texasHoldem.equity.PreflopTableFormat.*;
+
+/**
+ * Computes the equities of a {@link PreflopTable} and writes them to a file,
+ * once, ahead of the processes that look them up.
+ * <ul>
+ *     <li>Class entries are sampled with {@link RangeEquityCalculator#monteCarlo},
+ *     one combination of the class against as many full ranges as opponents.</li>
+ *     <li>Heads-up entries are enumerated with {@link EquityCalculator#enumerate}
+ *     unless a number of samples is given. Matchups that only differ by
+ *     renaming suits share one calculation, see {@link SuitIsomorphism}, and
+ *     the second combination's equity is what the first one leaves.</li>
+ * </ul>
+ * The file is written next to its destination and moved over it when
+ * complete, so readers never map a half written table.
+ *
+ * Run with {@code ./gradlew preflopTable}, or pass the file and optionally
+ * the samples per class and heads-up entry to {@link #main}.
+ */
+public class PreflopTableGenerator {
+    public static final long DEFAULT_CLASS_SAMPLES = 200_000;
+    public static final long ENUMERATE = 0;
+
+    private static final String ALL_HANDS = "22+,A2+,K2+,Q2+,J2+,T2+,92+,82+,72+,62+,52+,42+,32";
+
+    private final EquityCalculator equity;
+    private final RangeEquityCalculator rangeEquity;
+
+    public PreflopTableGenerator() {
+        this(new EquityCalculator(), new RangeEquityCalculator());
+    }
+
+    public PreflopTableGenerator(EquityCalculator equity, RangeEquityCalculator rangeEquity) {
+        this.equity = equity;
+        this.rangeEquity = rangeEquity;
+    }
+
+    /**
+     * @param headsUpSamples runouts sampled per heads-up matchup, or {@link #ENUMERATE}
+     */
+    public void generate(Path path, long classSamples, long headsUpSamples) throws IOException {
+        if (classSamples <= 0 || headsUpSamples < 0) {
+            throw new IllegalArgumentException("Bad sample counts " + classSamples + ", " + headsUpSamples);
+        }
+        float[] classEquities = classEquities(classSamples);
+        float[] headsUpEquities = headsUpEquities(headsUpSamples);
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path partial = directory.resolve(path.getFileName() + ".partial");
+        try {
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+                table.order(ORDER);
+                table.putInt(MAGIC_OFFSET, MAGIC);
+                table.putInt(VERSION_OFFSET, VERSION);
+                table.putInt(CLASSES_OFFSET, StartingHands.CLASSES);
+                table.putInt(OPPONENTS_OFFSET, MAX_OPPONENTS);
+                table.putInt(COMBOS_OFFSET, StartingHands.COMBOS);
+                table.putLong(CLASS_SAMPLES_OFFSET, classSamples);
+                table.putLong(HEADS_UP_SAMPLES_OFFSET, headsUpSamples);
+                table.position(CLASS_TABLE_OFFSET);
+                table.asFloatBuffer().put(classEquities);
+                table.position(HEADS_UP_TABLE_OFFSET);
+                table.asFloatBuffer().put(headsUpEquities);
+                table.force();
+            }
+            Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    private float[] classEquities(long samples) {
+        Range allHands = Range.parse(ALL_HANDS);
+        float[] equities = new float[StartingHands.CLASSES * MAX_OPPONENTS];
+        for (int handClass = 0; handClass < StartingHands.CLASSES; handClass++) {
+            Range hand = Range.of(CardSet.toCards(StartingHands.maskOfClass(handClass)));
+            for (int opponents = 1; opponents <= MAX_OPPONENTS; opponents++) {
+                List<Range> ranges = new ArrayList<>(Collections.nCopies(opponents + 1, allHands));
+                ranges.set(0, hand);
+                RangeEquityResult result = rangeEquity.monteCarlo(ranges, List.of(), List.of(), samples);
+                equities[handClass * MAX_OPPONENTS + opponents - 1] = (float) result.getEquity(0);
+            }
+        }
+        return equities;
+    }
+
+    private float[] headsUpEquities(long samples) {
+        int combos = StartingHands.COMBOS;
+        float[] equities = new float[combos * combos];
+        Arrays.fill(equities, Float.NaN);
+        boolean[] done = new boolean[combos * combos];
+        long[] matchup = new long[2];
+        for (int first = 0; first < combos; first++) {
+            long firstMask = StartingHands.maskOfCombo(first);
+            for (int second = first + 1; second < combos; second++) {
+                long secondMask = StartingHands.maskOfCombo(second);
+                if ((firstMask & secondMask) != 0) {
+                    continue;
+                }
+                matchup[0] = firstMask;
+                matchup[1] = secondMask;
+                SuitIsomorphism.canonicalize(matchup);
+                int canonical = StartingHands.comboOf(matchup[0]) * combos + StartingHands.comboOf(matchup[1]);
+                if (!done[canonical]) {
+                    double firstEquity = headsUp(matchup[0], matchup[1], samples);
+                    equities[canonical] = (float) firstEquity;
+                    done[canonical] = true;
+                    // The same matchup seen from the other side
+                    long swap = matchup[0];
+                    matchup[0] = matchup[1];
+                    matchup[1] = swap;
+                    SuitIsomorphism.canonicalize(matchup);
+                    int reversed = StartingHands.comboOf(matchup[0]) * combos + StartingHands.comboOf(matchup[1]);
+                    equities[reversed] = (float) (1 - firstEquity);
+                    done[reversed] = true;
+                }
+                equities[first * combos + second] = equities[canonical];
+                equities[second * combos + first] = 1 - equities[canonical];
+            }
+        }
+        return equities;
+    }
+
+    private double headsUp(long firstMask, long secondMask, long samples) {
+        List<List<Card>> holeCards = List.of(CardSet.toCards(firstMask), CardSet.toCards(secondMask));
+        EquityResult result = samples == ENUMERATE ?
+                equity.enumerate(holeCards, List.of(), List.of()) :
+                equity.monteCarlo(holeCards, List.of(), List.of(), samples);
+        return result.getEquity(0);
+    }
+
+    /**
+     * Arguments: the file, then optionally the samples per class entry and
+     * per heads-up entry, 0 to enumerate every runout heads-up.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: PreflopTableGenerator file [class samples] [heads-up samples]");
+            System.exit(1);
+        }
+        Path path = Paths.get(args[0]);
+        long classSamples = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_CLASS_SAMPLES;
+        long headsUpSamples = args.length > 2 ? Long.parseLong(args[2]) : ENUMERATE;
+        long start = System.nanoTime();
+        new PreflopTableGenerator().generate(path, classSamples, headsUpSamples);
+        System.out.printf("Wrote %s in %.1f s%n", path, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,269 @@
+package gameImplementations.poker.texasHoldem.equity;
+
+import deck.Card;
+import deck.Card.Suit;
+import deck.CardId;
+import deck.CardSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A weighted set of Hold'em starting hands, each a combination of two
+ * specific cards. Ranges are parsed from the usual notation, a comma
+ * separated list of:
+ * <ul>
+ *     <li>pairs, {@code QQ}, and pairs from there up, {@code QQ+}, or down to another, {@code QQ-99};</li>
+ *     <li>two ranks, {@code AK} for all sixteen combinations, {@code AKs} suited, {@code AKo} offsuit;</li>
+ *     <li>the kicker running up to just below the top card, {@code A9s+}, or down to another,
+ *     {@code KTs-K7s};</li>
+ *     <li>both cards running down together, {@code T9s-65s};</li>
+ *     <li>single combinations, {@code AhKd}, with suits {@code c s d h}.</li>
+ * </ul>
+ * Any entry may end in {@code :weight}, e.g. {@code AKo:0.5}; the weight is 1
+ * otherwise, and a later entry overrides the weight of combinations it repeats.
+ */
+public final class Range {
+    private static final String RANKS = "23456789TJQKA";
+    private static final String SUITS = "csdh";
+    private static final int[] SUIT_IDS = {
+            CardId.suitOf(Suit.CLUBS), CardId.suitOf(Suit.SPADES), CardId.suitOf(Suit.DIAMONDS), CardId.suitOf(Suit.HEARTS)
+    };
+
+    private final long[] masks;
+    private final double[] weights;
+
+    private Range(long[] masks, double[] weights) {
+        this.masks = masks;
+        this.weights = weights;
+    }
+
+    public static Range parse(String notation) {
+        double[] weights = new double[CardId.COUNT * CardId.COUNT];
+        for (String entry : notation.split(",")) {
+            entry = entry.trim();
+            if (!entry.isEmpty()) {
+                parseEntry(entry, weights);
+            }
+        }
+        return of(weights);
+    }
+
+    /**
+     * @return a range of a single combination
+     */
+    public static Range of(List<Card> holeCards) {
+        long mask = CardSet.maskOf(holeCards);
+        if (holeCards.size() != 2 || CardSet.size(mask) != 2) {
+            throw new IllegalArgumentException("A combination is two distinct cards, got " + holeCards);
+        }
+        return new Range(new long[]{mask}, new double[]{1});
+    }
+
+    private static Range of(double[] weightByPair) {
+        int size = 0;
+        for (double weight : weightByPair) {
+            size += weight > 0 ? 1 : 0;
+        }
+        long[] masks = new long[size];
+        double[] weights = new double[size];
+        int combo = 0;
+        for (int pair = 0; pair < weightByPair.length; pair++) {
+            if (weightByPair[pair] > 0) {
+                masks[combo] = CardSet.bit(pair / CardId.COUNT) | CardSet.bit(pair % CardId.COUNT);
+                weights[combo++] = weightByPair[pair];
+            }
+        }
+        return new Range(masks, weights);
+    }
+
+    public int size() {
+        return masks.length;
+    }
+
+    /**
+     * @return the combination's two cards as a {@link CardSet} mask
+     */
+    public long getMask(int combo) {
+        return masks[combo];
+    }
+
+    /**
+     * @return the combination's index, negative if the range does not hold it
+     */
+    int indexOf(long mask) {
+        // Combinations are kept in ascending order of their masks
+        return Arrays.binarySearch(masks, mask);
+    }
+
+    public List<Card> getCards(int combo) {
+        return CardSet.toCards(masks[combo]);
+    }
+
+    public double getWeight(int combo) {
+        return weights[combo];
+    }
+
+    public double getTotalWeight() {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        return total;
+    }
+
+    /**
+     * @return the combinations that hold none of the cards, the board or dead cards for instance
+     */
+    public Range without(long cards) {
+        int size = 0;
+        for (long mask : masks) {
+            size += (mask & cards) == 0 ? 1 : 0;
+        }
+        long[] keptMasks = new long[size];
+        double[] keptWeights = new double[size];
+        for (int combo = 0, kept = 0; combo < masks.length; combo++) {
+            if ((masks[combo] & cards) == 0) {
+                keptMasks[kept] = masks[combo];
+                keptWeights[kept++] = weights[combo];
+            }
+        }
+        return new Range(keptMasks, keptWeights);
+    }
+
+    @Override
+    public String toString() {
+        List<String> combos = new ArrayList<>();
+        for (int combo = 0; combo < masks.length; combo++) {
+            long mask = masks[combo];
+            String cards = CardId.toString(63 - Long.numberOfLeadingZeros(mask)) + CardId.toString(Long.numberOfTrailingZeros(mask));
+            combos.add(weights[combo] == 1 ? cards : cards + ":" + weights[combo]);
+        }
+        return combos.toString();
+    }
+
+    ////////////////////////////////////////
+    // Parsing
+    ////////////////////////////////////////
+
+    private static void parseEntry(String entry, double[] weights) {
+        double weight = 1;
+        int colon = entry.indexOf(':');
+        if (colon >= 0) {
+            try {
+                weight = Double.parseDouble(entry.substring(colon + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad weight in " + entry, e);
+            }
+            if (!(weight >= 0)) {
+                throw new IllegalArgumentException("Negative weight in " + entry);
+            }
+            entry = entry.substring(0, colon).trim();
+        }
+
+        if (entry.length() == 4 && SUITS.indexOf(Character.toLowerCase(entry.charAt(1))) >= 0) {
+            int first = card(entry, 0);
+            int second = card(entry, 2);
+            if (first == second) {
+                throw new IllegalArgumentException("Same card twice in " + entry);
+            }
+            weights[pair(first, second)] = weight;
+            return;
+        }
+
+        int dash = entry.indexOf('-');
+        boolean plus = entry.endsWith("+");
+        String from = dash >= 0 ? entry.substring(0, dash) : plus ? entry.substring(0, entry.length() - 1) : entry;
+        Hand start = hand(from, entry);
+        if (dash >= 0) {
+            Hand end = hand(entry.substring(dash + 1), entry);
+            if (start.kind != end.kind) {
+                throw new IllegalArgumentException("Range ends are not alike in " + entry);
+            }
+            if (start.high - start.low == end.high - end.low) {
+                // Pairs, or both cards moving together: QQ-99, T9s-65s
+                for (int step = 0; step <= Math.abs(start.high - end.high); step++) {
+                    int direction = start.high >= end.high ? -1 : 1;
+                    add(start.high + step * direction, start.low + step * direction, start.kind, weight, weights);
+                }
+            } else if (start.high == end.high) {
+                // The kicker moving: KTs-K7s
+                for (int low = Math.min(start.low, end.low); low <= Math.max(start.low, end.low); low++) {
+                    add(start.high, low, start.kind, weight, weights);
+                }
+            } else {
+                throw new IllegalArgumentException("Cannot tell how " + entry + " runs");
+            }
+        } else if (plus) {
+            if (start.high == start.low) {
+                for (int rank = start.high; rank < CardId.RANKS; rank++) {
+                    add(rank, rank, start.kind, weight, weights);
+                }
+            } else {
+                for (int low = start.low; low < start.high; low++) {
+                    add(start.high, low, start.kind, weight, weights);
+                }
+            }
+        } else {
+            add(start.high, start.low, start.kind, weight, weights);
+        }
+    }
+
+    private static void add(int high, int low, char kind, double weight, double[] weights) {
+        for (int firstSuit = 0; firstSuit < CardId.SUITS; firstSuit++) {
+            for (int secondSuit = 0; secondSuit < CardId.SUITS; secondSuit++) {
+                boolean suited = firstSuit == secondSuit;
+                if (high == low ? secondSuit <= firstSuit : kind == 's' && !suited || kind == 'o' && suited) {
+                    continue;
+                }
+                weights[pair(CardId.of(high, firstSuit), CardId.of(low, secondSuit))] = weight;
+            }
+        }
+    }
+
+    private static int pair(int first, int second) {
+        return Math.max(first, second) * CardId.COUNT + Math.min(first, second);
+    }
+
+    private static int card(String entry, int at) {
+        int suit = SUITS.indexOf(Character.toLowerCase(entry.charAt(at + 1)));
+        if (suit < 0) {
+            throw new IllegalArgumentException("Unknown suit in " + entry);
+        }
+        return CardId.of(rank(entry.charAt(at), entry), SUIT_IDS[suit]);
+    }
+
+    private static int rank(char symbol, String entry) {
+        int rank = RANKS.indexOf(Character.toUpperCase(symbol));
+        if (rank < 0) {
+            throw new IllegalArgumentException("Unknown rank " + symbol + " in " + entry);
+        }
+        return rank;
+    }
+
+    private static Hand hand(String text, String entry) {
+        if (text.length() < 2 || text.length() > 3) {
+            throw new IllegalArgumentException("Cannot read " + text + " in " + entry);
+        }
+        int first = rank(text.charAt(0), entry);
+        int second = rank(text.charAt(1), entry);
+        char kind = text.length() == 3 ? Character.toLowerCase(text.charAt(2)) : ' ';
+        if (kind != ' ' && kind != 's' && kind != 'o' || first == second && kind != ' ') {
+            throw new IllegalArgumentException("Cannot read " + text + " in " + entry);
+        }
+        return new Hand(Math.max(first, second), Math.min(first, second), kind);
+    }
+
+    private static class Hand {
+        final int high;
+        final int low;
+        final char kind;
+
+        Hand(int high, int low, char kind) {
+            this.high = high;
+            this.low = low;
+            this.kind = kind;
+        }
+    }
+}
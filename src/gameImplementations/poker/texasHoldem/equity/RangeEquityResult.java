@@ -0,0 +1,109 @@
+package gameImplementations.poker.texasHoldem.equity;
+
+/**
+ * Per range outcome of a range against range equity calculation. Every
+ * showdown between one combination of each range counts with the product
+ * of the combinations' weights; a range's equity is the weight it won
+ * outright plus its share of the weight tied, over the weight counted.
+ */
+public class RangeEquityResult {
+    private final double[] wins;
+    private final double[] ties;
+    private final double[] tieShares;
+    private double weight;
+    private long samples;
+    private long elapsedNanos;
+    private boolean exact;
+
+    public RangeEquityResult(int ranges) {
+        wins = new double[ranges];
+        ties = new double[ranges];
+        tieShares = new double[ranges];
+    }
+
+    public int getRanges() {
+        return wins.length;
+    }
+
+    /**
+     * @return runouts counted when exact, showdowns sampled otherwise
+     */
+    public long getSamples() {
+        return samples;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    public double getWinRate(int range) {
+        return weight == 0 ? 0 : wins[range] / weight;
+    }
+
+    public double getTieRate(int range) {
+        return weight == 0 ? 0 : ties[range] / weight;
+    }
+
+    public double getEquity(int range) {
+        return weight == 0 ? 0 : (wins[range] + tieShares[range]) / weight;
+    }
+
+    /**
+     * @return true if every combination and runout was counted rather than sampled
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getSamplesPerSecond() {
+        return elapsedNanos == 0 ? 0 : samples * 1e9 / elapsedNanos;
+    }
+
+    void record(int range, double won, double tied, double tieShare) {
+        wins[range] += won;
+        ties[range] += tied;
+        tieShares[range] += tieShare;
+    }
+
+    void addWeight(double weight) {
+        this.weight += weight;
+    }
+
+    void addSamples(int runouts) {
+        samples += runouts;
+    }
+
+    void merge(RangeEquityResult other) {
+        for (int range = 0; range < wins.length; range++) {
+            wins[range] += other.wins[range];
+            ties[range] += other.ties[range];
+            tieShares[range] += other.tieShares[range];
+        }
+        weight += other.weight;
+        samples += other.samples;
+    }
+
+    void finish(long elapsedNanos, boolean exact) {
+        this.elapsedNanos = elapsedNanos;
+        this.exact = exact;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int range = 0; range < wins.length; range++) {
+            sb.append("Range ").append(range)
+                    .append(": equity ").append(String.format("%.4f", getEquity(range)))
+                    .append(", win ").append(String.format("%.4f", getWinRate(range)))
+                    .append(", tie ").append(String.format("%.4f", getTieRate(range)))
+                    .append('\n');
+        }
+        sb.append(samples).append(exact ? " runouts" : " samples")
+                .append(String.format(" at %.0f/s", getSamplesPerSecond()));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,290 @@
+package gameImplementations.poker.texasHoldem.equity;
+
+import deck.Card;
+import deck.CardId;
+import deck.CardSet;
+import deck.SuitIsomorphism;
+import gameImplementations.poker.BoardEvaluator;
+import gameImplementations.poker.HandEvaluator;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A validated range against range equity problem. The ranges lose every
+ * combination that holds a board or dead card up front; combinations that
+ * clash with each other or with a runout are left out per showdown. Each
+ * combination is kept in {@link HandEvaluator}'s packed form, as in
+ * {@link Showdown}. {@link #symmetry} holds the suit renamings that keep
+ * the board, the dead cards and every range's weights as they are.
+ */
+class RangeShowdown {
+    final Range[] ranges;
+    final long[][] masks;
+    final long[][] rankCounts;
+    final long[][] suitRanks;
+    final long boardMask;
+    final int cardsToCome;
+    final int[] remaining;
+    final int symmetry;
+
+    RangeShowdown(List<Range> ranges, List<Card> board, List<Card> deadCards) {
+        if (ranges.size() < 2) {
+            throw new IllegalArgumentException("Equity needs at least two ranges, got " + ranges.size());
+        }
+        if (board.size() > Showdown.BOARD_SIZE) {
+            throw new IllegalArgumentException("Board has " + board.size() + " cards");
+        }
+        boardMask = CardSet.maskOf(board);
+        long deadMask = CardSet.maskOf(deadCards);
+        if (CardSet.size(boardMask) != board.size() || CardSet.size(deadMask) != deadCards.size()
+                || (boardMask & deadMask) != 0) {
+            throw new IllegalArgumentException("Board and dead cards must be distinct, known cards");
+        }
+        long used = boardMask | deadMask;
+
+        this.ranges = new Range[ranges.size()];
+        masks = new long[ranges.size()][];
+        rankCounts = new long[ranges.size()][];
+        suitRanks = new long[ranges.size()][];
+        for (int r = 0; r < this.ranges.length; r++) {
+            Range range = ranges.get(r).without(used);
+            if (range.size() == 0) {
+                throw new IllegalArgumentException("Range " + r + " has no combinations left");
+            }
+            this.ranges[r] = range;
+            masks[r] = new long[range.size()];
+            rankCounts[r] = new long[range.size()];
+            suitRanks[r] = new long[range.size()];
+            for (int combo = 0; combo < range.size(); combo++) {
+                masks[r][combo] = range.getMask(combo);
+                for (long rest = masks[r][combo]; rest != CardSet.EMPTY; rest &= rest - 1) {
+                    int id = Long.numberOfTrailingZeros(rest);
+                    rankCounts[r][combo] += HandEvaluator.rankCountOf(id);
+                    suitRanks[r][combo] |= HandEvaluator.suitRankOf(id);
+                }
+            }
+        }
+
+        cardsToCome = Showdown.BOARD_SIZE - board.size();
+        long rest = CardSet.minus(CardSet.FULL_DECK, used);
+        remaining = new int[CardSet.size(rest)];
+        for (int i = 0; rest != CardSet.EMPTY; rest &= rest - 1) {
+            remaining[i++] = Long.numberOfTrailingZeros(rest);
+        }
+
+        int symmetry = SuitIsomorphism.stabilizer(boardMask, deadMask);
+        for (Range range : this.ranges) {
+            for (int others = symmetry & ~SuitIsomorphism.IDENTITY; others != 0; others &= others - 1) {
+                int permutation = Integer.numberOfTrailingZeros(others);
+                if (!keeps(range, permutation)) {
+                    symmetry &= ~(1 << permutation);
+                }
+            }
+        }
+        this.symmetry = symmetry;
+    }
+
+    private static boolean keeps(Range range, int permutation) {
+        for (int combo = 0; combo < range.size(); combo++) {
+            int image = range.indexOf(SuitIsomorphism.permute(range.getMask(combo), permutation));
+            if (image < 0 || range.getWeight(image) != range.getWeight(combo)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int ranges() {
+        return ranges.length;
+    }
+
+    /**
+     * Scratch space for settling runouts on one thread.
+     */
+    static class Scratch {
+        final BoardEvaluator board = new BoardEvaluator();
+        // Rank of every combination on the runout, 0 where it clashes with the runout
+        final int[][] ranks;
+        // Combinations of the first two ranges by rank, as rank << 32 | combo
+        final long[] first;
+        final long[] second;
+        final Below less = new Below();
+        final Below lessOrEqual = new Below();
+        final Below all = new Below();
+        // One combination per range while walking showdowns of three or more
+        final int[] chosen;
+
+        Scratch(RangeShowdown showdown) {
+            ranks = new int[showdown.ranges()][];
+            for (int r = 0; r < ranks.length; r++) {
+                ranks[r] = new int[showdown.masks[r].length];
+            }
+            first = new long[showdown.masks[0].length];
+            second = new long[showdown.masks[1].length];
+            chosen = new int[showdown.ranges()];
+        }
+    }
+
+    /**
+     * Weight of the second range's combinations up to some rank, in total,
+     * by card and by combination, so the weight a combination of the first
+     * range can actually meet is the total less what clashes with it.
+     */
+    static class Below {
+        double total;
+        final double[] byCard = new double[CardId.COUNT];
+        final double[] byCombo = new double[CardId.COUNT * CardId.COUNT];
+
+        void clear() {
+            total = 0;
+            Arrays.fill(byCard, 0);
+        }
+
+        void add(long mask, double weight) {
+            total += weight;
+            byCard[CardSet.first(mask)] += weight;
+            byCard[63 - Long.numberOfLeadingZeros(mask)] += weight;
+            byCombo[combo(mask)] += weight;
+        }
+
+        void remove(long mask) {
+            byCombo[combo(mask)] = 0;
+        }
+
+        double meeting(long mask) {
+            return total - byCard[CardSet.first(mask)] - byCard[63 - Long.numberOfLeadingZeros(mask)] + byCombo[combo(mask)];
+        }
+
+        private static int combo(long mask) {
+            return (63 - Long.numberOfLeadingZeros(mask)) * CardId.COUNT + CardSet.first(mask);
+        }
+    }
+
+    /**
+     * Counts every showdown on a complete board between combinations of
+     * each range that clash neither with each other nor with the board.
+     *
+     * @param runouts how many runouts this one stands for
+     */
+    void settle(long fullBoard, int runouts, Scratch scratch, RangeEquityResult result) {
+        scratch.board.setBoard(fullBoard);
+        for (int r = 0; r < masks.length; r++) {
+            int[] ranks = scratch.ranks[r];
+            for (int combo = 0; combo < ranks.length; combo++) {
+                ranks[combo] = (masks[r][combo] & fullBoard) != 0 ? 0 :
+                        scratch.board.evaluate(rankCounts[r][combo], suitRanks[r][combo], 2);
+            }
+        }
+        if (masks.length == 2) {
+            settleHeadsUp(runouts, scratch, result);
+        } else {
+            settleMultiway(0, fullBoard, runouts, scratch, result);
+        }
+        result.addSamples(runouts);
+    }
+
+    /**
+     * Sorts both ranges by rank and walks them together, so every
+     * combination of the first range learns the weight of the second that
+     * it beats, ties and loses to in one pass, less what clashes with it.
+     */
+    private void settleHeadsUp(int runouts, Scratch scratch, RangeEquityResult result) {
+        int firstCount = sortByRank(scratch.ranks[0], scratch.first);
+        int secondCount = sortByRank(scratch.ranks[1], scratch.second);
+        Range firstRange = ranges[0];
+        Range secondRange = ranges[1];
+        Below less = scratch.less;
+        Below lessOrEqual = scratch.lessOrEqual;
+        Below all = scratch.all;
+        less.clear();
+        lessOrEqual.clear();
+        all.clear();
+        for (int i = 0; i < secondCount; i++) {
+            int combo = (int) scratch.second[i];
+            all.add(masks[1][combo], secondRange.getWeight(combo));
+        }
+
+        int lessEnd = 0;
+        int lessOrEqualEnd = 0;
+        double won = 0, tied = 0, lost = 0;
+        for (int i = 0; i < firstCount; i++) {
+            int rank = (int) (scratch.first[i] >>> 32);
+            int combo = (int) scratch.first[i];
+            for (; lessEnd < secondCount && (int) (scratch.second[lessEnd] >>> 32) < rank; lessEnd++) {
+                int other = (int) scratch.second[lessEnd];
+                less.add(masks[1][other], secondRange.getWeight(other));
+            }
+            for (; lessOrEqualEnd < secondCount && (int) (scratch.second[lessOrEqualEnd] >>> 32) <= rank; lessOrEqualEnd++) {
+                int other = (int) scratch.second[lessOrEqualEnd];
+                lessOrEqual.add(masks[1][other], secondRange.getWeight(other));
+            }
+            long mask = masks[0][combo];
+            double weight = firstRange.getWeight(combo);
+            double below = less.meeting(mask);
+            double belowOrEqual = lessOrEqual.meeting(mask);
+            double met = all.meeting(mask);
+            won += weight * below;
+            tied += weight * (belowOrEqual - below);
+            lost += weight * (met - belowOrEqual);
+        }
+        won *= runouts;
+        tied *= runouts;
+        lost *= runouts;
+        result.record(0, won, tied, tied / 2);
+        result.record(1, lost, tied, tied / 2);
+        result.addWeight(won + tied + lost);
+
+        for (int i = 0; i < secondCount; i++) {
+            long mask = masks[1][(int) scratch.second[i]];
+            less.remove(mask);
+            lessOrEqual.remove(mask);
+            all.remove(mask);
+        }
+    }
+
+    private static int sortByRank(int[] ranks, long[] sorted) {
+        int count = 0;
+        for (int combo = 0; combo < ranks.length; combo++) {
+            if (ranks[combo] != 0) {
+                sorted[count++] = (long) ranks[combo] << 32 | combo;
+            }
+        }
+        Arrays.sort(sorted, 0, count);
+        return count;
+    }
+
+    /**
+     * Walks every combination of every range that clashes with none chosen
+     * before it; only meant for small ranges.
+     */
+    private void settleMultiway(int range, long used, double weight, Scratch scratch, RangeEquityResult result) {
+        if (range == masks.length) {
+            int best = 0;
+            int winners = 0;
+            for (int r = 0; r < masks.length; r++) {
+                int rank = scratch.ranks[r][scratch.chosen[r]];
+                if (rank > best) {
+                    best = rank;
+                    winners = 1;
+                } else if (rank == best) {
+                    winners++;
+                }
+            }
+            for (int r = 0; r < masks.length; r++) {
+                if (scratch.ranks[r][scratch.chosen[r]] == best) {
+                    result.record(r, winners == 1 ? weight : 0, winners == 1 ? 0 : weight, winners == 1 ? 0 : weight / winners);
+                }
+            }
+            result.addWeight(weight);
+            return;
+        }
+        for (int combo = 0; combo < masks[range].length; combo++) {
+            if ((masks[range][combo] & used) == 0) {
+                scratch.chosen[range] = combo;
+                settleMultiway(range + 1, used | masks[range][combo], weight * ranges[range].getWeight(combo),
+                        scratch, result);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package gameImplementations.poker.texasHoldem.equity;
+
+import deck.Card;
+import deck.CardId;
+import deck.CardSet;
+import deck.SuitIsomorphism;
+import gameImplementations.poker.BoardEvaluator;
+import gameImplementations.poker.HandEvaluator;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A validated equity problem: every player's hole cards, the known part of
+ * the board and the dead cards, all as {@link CardSet} masks, plus the cards
+ * that may still come. Hole cards are also kept in {@link HandEvaluator}'s
+ * packed form so that each runout only packs its board once.
+ * <p>
+ * {@link #symmetry} holds the suit renamings that leave every player's hole
+ * cards, the board and the dead cards as they are. Runouts that such a
+ * renaming maps onto each other end the same way, so enumeration settles
+ * one of them for all; see {@link SuitIsomorphism}.
+ */
+class Showdown {
+    static final int BOARD_SIZE = 5;
+
+    final long[] holeMasks;
+    final long[] holeRankCounts;
+    final long[] holeSuitRanks;
+    final int[] holeCounts;
+    final long boardMask;
+    final int cardsToCome;
+    final int[] remaining;
+    final int symmetry;
+
+    Showdown(List<? extends List<Card>> holeCards, List<Card> board, List<Card> deadCards) {
+        if (holeCards.isEmpty()) {
+            throw new IllegalArgumentException("No players to evaluate");
+        }
+        if (board.size() > BOARD_SIZE) {
+            throw new IllegalArgumentException("Board has " + board.size() + " cards");
+        }
+        long used = CardSet.EMPTY;
+        holeMasks = new long[holeCards.size()];
+        for (int player = 0; player < holeMasks.length; player++) {
+            holeMasks[player] = toMask(holeCards.get(player), used);
+            used |= holeMasks[player];
+        }
+        holeRankCounts = new long[holeMasks.length];
+        holeSuitRanks = new long[holeMasks.length];
+        holeCounts = new int[holeMasks.length];
+        for (int player = 0; player < holeMasks.length; player++) {
+            for (long rest = holeMasks[player]; rest != CardSet.EMPTY; rest &= rest - 1) {
+                int id = Long.numberOfTrailingZeros(rest);
+                holeRankCounts[player] += HandEvaluator.rankCountOf(id);
+                holeSuitRanks[player] |= HandEvaluator.suitRankOf(id);
+                holeCounts[player]++;
+            }
+        }
+        boardMask = toMask(board, used);
+        used |= boardMask;
+        long deadMask = toMask(deadCards, used);
+        used |= deadMask;
+
+        cardsToCome = BOARD_SIZE - board.size();
+        long rest = CardSet.minus(CardSet.FULL_DECK, used);
+        if (CardSet.size(rest) < cardsToCome) {
+            throw new IllegalArgumentException("Not enough cards left to complete the board");
+        }
+        remaining = new int[CardSet.size(rest)];
+        for (int i = 0; rest != CardSet.EMPTY; rest &= rest - 1) {
+            remaining[i++] = Long.numberOfTrailingZeros(rest);
+        }
+        long[] known = Arrays.copyOf(holeMasks, holeMasks.length + 2);
+        known[holeMasks.length] = boardMask;
+        known[holeMasks.length + 1] = deadMask;
+        symmetry = SuitIsomorphism.stabilizer(known);
+    }
+
+    int players() {
+        return holeMasks.length;
+    }
+
+    /**
+     * Evaluates every player on the complete board and records the outcome.
+     *
+     * @param runouts how many runouts this one stands for
+     * @param board   scratch evaluator, its board is replaced
+     * @param ranks   scratch space of at least {@link #players()} entries
+     */
+    void settle(long fullBoard, int runouts, BoardEvaluator board, int[] ranks, EquityResult result) {
+        board.setBoard(fullBoard);
+        int best = 0;
+        int winners = 0;
+        for (int player = 0; player < holeMasks.length; player++) {
+            int rank = board.evaluate(holeRankCounts[player], holeSuitRanks[player], holeCounts[player]);
+            ranks[player] = rank;
+            if (rank > best) {
+                best = rank;
+                winners = 1;
+            } else if (rank == best) {
+                winners++;
+            }
+        }
+        for (int player = 0; player < holeMasks.length; player++) {
+            if (ranks[player] == best) {
+                result.record(player, winners, runouts);
+            }
+        }
+        result.addSamples(runouts);
+    }
+
+    private static long toMask(List<Card> cards, long used) {
+        long mask = CardSet.EMPTY;
+        for (Card card : cards) {
+            int id = CardId.of(card);
+            if (id == CardId.NONE) {
+                throw new IllegalArgumentException("Unknown card " + card);
+            }
+            if (CardSet.contains(used | mask, id)) {
+                throw new IllegalArgumentException("Card " + card + " is used twice");
+            }
+            mask = CardSet.with(mask, id);
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,80 @@
+package gameImplementations.poker.texasHoldem.equity;
+
+import deck.CardId;
+import deck.CardSet;
+
+/**
+ * Indexes of Hold'em starting hands, given as two card {@link CardSet} masks.
+ * <ul>
+ *     <li>A combination, one of {@link #COMBOS}, is the two specific cards:
+ *     {@code high * (high - 1) / 2 + low} of their {@link CardId}s.</li>
+ *     <li>A class, one of {@link #CLASSES}, forgets the suits but for whether
+ *     they match: a cell of the usual 13 by 13 grid, with pairs on the
+ *     diagonal, suited hands in the row of their high rank and offsuit hands
+ *     in the row of their low rank.</li>
+ * </ul>
+ */
+public final class StartingHands {
+    public static final int COMBOS = CardId.COUNT * (CardId.COUNT - 1) / 2;
+    public static final int CLASSES = CardId.RANKS * CardId.RANKS;
+
+    private static final String RANK_SYMBOLS = "23456789TJQKA";
+
+    private StartingHands() {
+    }
+
+    public static int comboOf(long holeMask) {
+        checkHoleCards(holeMask);
+        int high = 63 - Long.numberOfLeadingZeros(holeMask);
+        int low = Long.numberOfTrailingZeros(holeMask);
+        return high * (high - 1) / 2 + low;
+    }
+
+    public static long maskOfCombo(int combo) {
+        int high = 1;
+        while ((high + 1) * high / 2 <= combo) {
+            high++;
+        }
+        return CardSet.bit(high) | CardSet.bit(combo - high * (high - 1) / 2);
+    }
+
+    public static int classOf(long holeMask) {
+        checkHoleCards(holeMask);
+        int high = 63 - Long.numberOfLeadingZeros(holeMask);
+        int low = Long.numberOfTrailingZeros(holeMask);
+        int highRank = CardId.rank(high);
+        int lowRank = CardId.rank(low);
+        return CardId.suit(high) == CardId.suit(low) ?
+                highRank * CardId.RANKS + lowRank :
+                lowRank * CardId.RANKS + highRank;
+    }
+
+    /**
+     * @return one combination of the class, with suits as low as they go
+     */
+    public static long maskOfClass(int handClass) {
+        int row = handClass / CardId.RANKS;
+        int column = handClass % CardId.RANKS;
+        return row > column ?
+                CardSet.bit(CardId.of(row, 0)) | CardSet.bit(CardId.of(column, 0)) :
+                CardSet.bit(CardId.of(row, 0)) | CardSet.bit(CardId.of(column, 1));
+    }
+
+    /**
+     * @return the class in the usual notation, e.g. {@code AKs}, {@code T9o} or {@code 77}
+     */
+    public static String nameOf(int handClass) {
+        int row = handClass / CardId.RANKS;
+        int column = handClass % CardId.RANKS;
+        int high = Math.max(row, column);
+        int low = Math.min(row, column);
+        String name = "" + RANK_SYMBOLS.charAt(high) + RANK_SYMBOLS.charAt(low);
+        return row == column ? name : name + (row > column ? "s" : "o");
+    }
+
+    private static void checkHoleCards(long holeMask) {
+        if (CardSet.size(holeMask) != 2 || (holeMask & ~CardSet.FULL_DECK) != 0) {
+            throw new IllegalArgumentException("A starting hand is two known cards, got " + CardSet.size(holeMask));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package gameImplementations.poker.texasHoldem.history;
+
+import java.util.Arrays;
+
+/**
+ * A run of hand records pulled apart into one primitive array per field,
+ * so aggregations stream through the fields they need instead of whole
+ * records. Hand {@code h} owns the seats {@code seatStart[h]} up to
+ * {@code seatStart[h + 1]}, and likewise for actions and awards; action and
+ * award seats are indexes into the hand's own seats.
+ */
+public final class HandColumns {
+    private static final int INITIAL_HANDS = 1 << 10;
+
+    int hands;
+    long[] handNumber = new long[INITIAL_HANDS];
+    int[] seatStart = new int[INITIAL_HANDS + 1];
+    int[] actionStart = new int[INITIAL_HANDS + 1];
+    int[] awardStart = new int[INITIAL_HANDS + 1];
+
+    long[] playerId = new long[INITIAL_HANDS * 4];
+
+    byte[] actionSeat = new byte[INITIAL_HANDS * 16];
+    byte[] actionStreet = new byte[INITIAL_HANDS * 16];
+    byte[] actionType = new byte[INITIAL_HANDS * 16];
+    long[] actionAmount = new long[INITIAL_HANDS * 16];
+
+    byte[] awardSeat = new byte[INITIAL_HANDS * 2];
+    long[] awardAmount = new long[INITIAL_HANDS * 2];
+
+    public void add(HandRecord record) {
+        if (hands + 1 == seatStart.length) {
+            int capacity = seatStart.length * 2;
+            handNumber = Arrays.copyOf(handNumber, capacity);
+            seatStart = Arrays.copyOf(seatStart, capacity + 1);
+            actionStart = Arrays.copyOf(actionStart, capacity + 1);
+            awardStart = Arrays.copyOf(awardStart, capacity + 1);
+        }
+        handNumber[hands] = record.getHandNumber();
+
+        int seats = seatStart[hands];
+        int seatCount = record.getSeatCount();
+        if (seats + seatCount > playerId.length) {
+            playerId = Arrays.copyOf(playerId, Math.max(playerId.length * 2, seats + seatCount));
+        }
+        for (int seat = 0; seat < seatCount; seat++) {
+            playerId[seats + seat] = record.getPlayerId(seat);
+        }
+        seatStart[hands + 1] = seats + seatCount;
+
+        int actions = actionStart[hands];
+        int actionCount = record.getActionCount();
+        if (actions + actionCount > actionSeat.length) {
+            int capacity = Math.max(actionSeat.length * 2, actions + actionCount);
+            actionSeat = Arrays.copyOf(actionSeat, capacity);
+            actionStreet = Arrays.copyOf(actionStreet, capacity);
+            actionType = Arrays.copyOf(actionType, capacity);
+            actionAmount = Arrays.copyOf(actionAmount, capacity);
+        }
+        for (int action = 0; action < actionCount; action++) {
+            actionSeat[actions + action] = (byte) record.getActionSeat(action);
+            actionStreet[actions + action] = (byte) record.getActionStreet(action);
+            actionType[actions + action] = (byte) record.getActionType(action);
+            actionAmount[actions + action] = record.getActionAmount(action);
+        }
+        actionStart[hands + 1] = actions + actionCount;
+
+        int awards = awardStart[hands];
+        int awardCount = record.getAwardCount();
+        if (awards + awardCount > awardSeat.length) {
+            int capacity = Math.max(awardSeat.length * 2, awards + awardCount);
+            awardSeat = Arrays.copyOf(awardSeat, capacity);
+            awardAmount = Arrays.copyOf(awardAmount, capacity);
+        }
+        for (int award = 0; award < awardCount; award++) {
+            awardSeat[awards + award] = (byte) record.getAwardSeat(award);
+            awardAmount[awards + award] = record.getAwardAmount(award);
+        }
+        awardStart[hands + 1] = awards + awardCount;
+
+        hands++;
+    }
+
+    public int getHands() {
+        return hands;
+    }
+
+    /**
+     * Empties the columns, keeping their arrays for the next run of hands.
+     */
+    public void clear() {
+        hands = 0;
+    }
+}
@@ -0,0 +1,66 @@
+package gameImplementations.poker.texasHoldem.history;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the hand history segment files, all little endian.
+ * <pre>
+ * segment header  int magic, int version, long number of the segment's first hand
+ * record          int length (0 marks the end of the segment)
+ *                 long hand number, long epoch millis
+ *                 byte seats, byte board cards, short actions, short awards, byte hole cards, byte unused
+ *                 seats   x (long player id, hole cards x byte card)
+ *                 board   5 x byte card
+ *                 actions x (byte seat, byte street, byte action, long amount)
+ *                 awards  x (byte seat, long amount)
+ * </pre>
+ * Amounts are {@link game.Chips} minor units. Cards are {@link deck.CardId}s, {@link deck.CardId#NONE} for unknown ones.
+ * Streets and actions are the ordinals of {@link gameImplementations.poker.texasHoldem.TexasHoldem.Street}
+ * and {@link gameImplementations.poker.texasHoldem.HoldemListener.Action}.
+ * Every seat keeps as many hole cards as the game deals, two in Hold'em and four in Omaha.
+ * An award to seat {@link #RAKE_SEAT} is the rake.
+ */
+final class HandHistoryFormat {
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    static final int MAGIC = 0x48484831; // "HHH1"
+    static final int VERSION = 3;
+    static final String SEGMENT_PREFIX = "hands-";
+    static final String SEGMENT_SUFFIX = ".hh";
+
+    static final int SEGMENT_HEADER_SIZE = 16;
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int FIRST_HAND_OFFSET = 8;
+
+    static final int LENGTH_OFFSET = 0;
+    static final int HAND_NUMBER_OFFSET = 4;
+    static final int TIMESTAMP_OFFSET = 12;
+    static final int SEAT_COUNT_OFFSET = 20;
+    static final int BOARD_COUNT_OFFSET = 21;
+    static final int ACTION_COUNT_OFFSET = 22;
+    static final int AWARD_COUNT_OFFSET = 24;
+    static final int HOLE_CARD_COUNT_OFFSET = 26;
+    static final int RECORD_HEADER_SIZE = 28;
+
+    static final int BOARD_SIZE = 5;
+    static final int ACTION_SIZE = 11;
+    static final int AWARD_SIZE = 9;
+
+    static final int MAX_SEATS = Byte.MAX_VALUE;
+    static final int MAX_HOLE_CARDS = Byte.MAX_VALUE;
+    static final int RAKE_SEAT = -1;
+
+    private HandHistoryFormat() {}
+
+    static String segmentName(long index) {
+        return SEGMENT_PREFIX + String.format("%010d", index) + SEGMENT_SUFFIX;
+    }
+
+    static int seatSize(int holeCards) {
+        return Long.BYTES + holeCards;
+    }
+
+    static int recordSize(int seats, int holeCards, int actions, int awards) {
+        return RECORD_HEADER_SIZE + seats * seatSize(holeCards) + BOARD_SIZE + actions * ACTION_SIZE + awards * AWARD_SIZE;
+    }
+}
@@ -0,0 +1,105 @@
+package gameImplementations.poker.texasHoldem.history;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static gameImplementations.poker.texasHoldem.history.HandHistoryFormat.*;
+
+/**
+ * Walks the hands a {@link HandHistoryWriter} left in a directory, oldest
+ * first. Segments are mapped read only and every hand is handed out as the
+ * same {@link HandRecord} view, so reading allocates nothing per hand.
+ */
+public class HandHistoryReader {
+    private final Path directory;
+
+    public HandHistoryReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the number of hands read
+     */
+    public long forEach(Consumer<? super HandRecord> action) throws IOException {
+        HandRecord record = new HandRecord();
+        long[] hands = new long[1];
+        for (Path path : segments(directory)) {
+            scan(path, SEGMENT_HEADER_SIZE, record, hand -> {
+                action.accept(hand);
+                hands[0]++;
+            });
+        }
+        return hands[0];
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    ////////////////////////////////////////
+    // Segment helpers
+    ////////////////////////////////////////
+
+    /**
+     * @return the directory's segment files, in the order they were written
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+                for (Path file : files) {
+                    segments.add(file);
+                }
+            }
+        }
+        // Names are zero padded, so they sort by index
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * Hands every record of a segment from the offset on to the action.
+     *
+     * @return the offset just past the last record
+     */
+    static int scan(Path path, int from, HandRecord record, Consumer<? super HandRecord> action) throws IOException {
+        MappedByteBuffer segment;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        segment.order(ORDER);
+        checkHeader(segment, path);
+        int position = Math.max(from, SEGMENT_HEADER_SIZE);
+        for (int length; (length = lengthAt(segment, position)) != 0; position += length) {
+            record.moveTo(segment, position);
+            action.accept(record);
+        }
+        return position;
+    }
+
+    static void checkHeader(ByteBuffer segment, Path path) throws IOException {
+        if (segment.limit() < SEGMENT_HEADER_SIZE || segment.getInt(MAGIC_OFFSET) != MAGIC) {
+            throw new IOException(path + " is not a hand history segment");
+        }
+        if (segment.getInt(VERSION_OFFSET) != VERSION) {
+            throw new IOException(path + " has version " + segment.getInt(VERSION_OFFSET) + ", expected " + VERSION);
+        }
+    }
+
+    /**
+     * @return the length of the record at the position, 0 past the last one
+     */
+    static int lengthAt(ByteBuffer segment, int position) {
+        return position > segment.limit() - RECORD_HEADER_SIZE ? 0 : segment.getInt(position + LENGTH_OFFSET);
+    }
+}
@@ -0,0 +1,161 @@
+package gameImplementations.poker.texasHoldem.history;
+
+import deck.Card;
+import deck.CardId;
+import gameImplementations.poker.Pot;
+import gameImplementations.poker.texasHoldem.HoldemListener;
+import gameImplementations.poker.texasHoldem.TexasHoldem;
+import participants.Player;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import static gameImplementations.poker.texasHoldem.history.HandHistoryFormat.*;
+
+/**
+ * Writes every hand a {@link TexasHoldem} deals to a {@link HandHistoryWriter}.
+ * The record is built up in one reusable buffer while the hand is played
+ * and appended when it finishes, so recording allocates nothing per hand.
+ *
+ * One recorder per table; several tables may share a writer.
+ */
+public class HandHistoryRecorder implements HoldemListener {
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private final HandHistoryWriter writer;
+    private final ToLongFunction<Player> playerIds;
+    private final List<Player> seats = new ArrayList<>();
+    private ByteBuffer record = ByteBuffer.allocate(INITIAL_CAPACITY).order(ORDER);
+    private int holeCards;
+    private int boardOffset;
+    private int boardCount;
+    private int actionCount;
+    private int awardCount;
+    private int street;
+
+    public HandHistoryRecorder(HandHistoryWriter writer) {
+        this(writer, new PlayerIds());
+    }
+
+    public HandHistoryRecorder(HandHistoryWriter writer, ToLongFunction<Player> playerIds) {
+        this.writer = writer;
+        this.playerIds = playerIds;
+    }
+
+    @Override
+    public void handDealt(List<Player> players) {
+        if (players.size() > MAX_SEATS) {
+            throw new IllegalArgumentException("Cannot record " + players.size() + " seats, at most " + MAX_SEATS);
+        }
+        seats.clear();
+        seats.addAll(players);
+        boardCount = 0;
+        actionCount = 0;
+        awardCount = 0;
+        street = 0;
+        // Every seat gets room for as many hole cards as the game dealt
+        holeCards = 0;
+        for (Player player : seats) {
+            holeCards = Math.max(holeCards, player.getHand().getCards().size());
+        }
+        if (holeCards > MAX_HOLE_CARDS) {
+            throw new IllegalArgumentException("Cannot record " + holeCards + " hole cards, at most " + MAX_HOLE_CARDS);
+        }
+
+        record.clear();
+        ensureCapacity(recordSize(seats.size(), holeCards, 0, 0));
+        record.position(RECORD_HEADER_SIZE);
+        for (int seat = 0; seat < seats.size(); seat++) {
+            Player player = seats.get(seat);
+            record.putLong(playerIds.applyAsLong(player));
+            List<Card> cards = player.getHand().getCards();
+            for (int i = 0; i < holeCards; i++) {
+                record.put((byte) (i < cards.size() ? CardId.of(cards.get(i)) : CardId.NONE));
+            }
+        }
+        boardOffset = record.position();
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            record.put((byte) CardId.NONE);
+        }
+    }
+
+    @Override
+    public void streetOpened(TexasHoldem.Street street, List<Card> board) {
+        this.street = street.ordinal();
+        boardCount = Math.min(board.size(), BOARD_SIZE);
+        for (int i = 0; i < boardCount; i++) {
+            record.put(boardOffset + i, (byte) CardId.of(board.get(i)));
+        }
+    }
+
+    @Override
+    public void actionTaken(Player player, Action action, long bet) {
+        // Actions come before every award, so they can go straight after the board
+        ensureCapacity(ACTION_SIZE);
+        record.put((byte) seatOf(player));
+        record.put((byte) street);
+        record.put((byte) action.ordinal());
+        record.putLong(bet);
+        actionCount++;
+    }
+
+    @Override
+    public void potAwarded(Player winner, long winnings, Pot pot) {
+        putAward(seatOf(winner), winnings);
+    }
+
+    @Override
+    public void rakeTaken(Pot pot, long rake) {
+        if (rake != 0) {
+            putAward(RAKE_SEAT, rake);
+        }
+    }
+
+    @Override
+    public void handFinished() {
+        int length = record.position();
+        record.putInt(LENGTH_OFFSET, length);
+        record.putLong(TIMESTAMP_OFFSET, System.currentTimeMillis());
+        record.put(SEAT_COUNT_OFFSET, (byte) seats.size());
+        record.put(BOARD_COUNT_OFFSET, (byte) boardCount);
+        record.put(HOLE_CARD_COUNT_OFFSET, (byte) holeCards);
+        record.putShort(ACTION_COUNT_OFFSET, (short) actionCount);
+        record.putShort(AWARD_COUNT_OFFSET, (short) awardCount);
+        record.flip();
+        try {
+            writer.append(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        seats.clear();
+    }
+
+    private void putAward(int seat, long amount) {
+        ensureCapacity(AWARD_SIZE);
+        record.put((byte) seat);
+        record.putLong(amount);
+        awardCount++;
+    }
+
+    private int seatOf(Player player) {
+        for (int seat = 0; seat < seats.size(); seat++) {
+            if (seats.get(seat) == player) {
+                return seat;
+            }
+        }
+        throw new IllegalArgumentException(player + " is not seated in the recorded hand");
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (record.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(record.capacity() * 2, record.position() + bytes)).order(ORDER);
+            record.flip();
+            larger.put(record);
+            record = larger;
+        }
+    }
+}
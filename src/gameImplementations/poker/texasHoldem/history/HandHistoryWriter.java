@@ -0,0 +1,142 @@
+package gameImplementations.poker.texasHoldem.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static gameImplementations.poker.texasHoldem.history.HandHistoryFormat.*;
+
+/**
+ * Appends hand records to memory mapped segment files in a directory. Each
+ * segment is sized up front and mapped once, so appending a hand is a copy
+ * into the page cache; when a record no longer fits, the segment is forced
+ * to disk and the next one is created. Opening a directory that already
+ * holds segments carries on after the last record written.
+ *
+ * A record's length is written last, so a reader never sees a partly
+ * written hand. Records are only guaranteed on disk after {@link #flush()},
+ * a rollover or {@link #close()}.
+ */
+public class HandHistoryWriter implements Closeable {
+    public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+
+    private final Path directory;
+    private final int segmentSize;
+    private long segmentIndex;
+    private MappedByteBuffer segment;
+    private long nextHandNumber;
+
+    public HandHistoryWriter(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public HandHistoryWriter(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < SEGMENT_HEADER_SIZE + recordSize(0, 0, 0, 0)) {
+            throw new IllegalArgumentException("Segment size " + segmentSize + " cannot hold a record");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        List<Path> segments = HandHistoryReader.segments(directory);
+        if (segments.isEmpty()) {
+            openSegment(0, 0);
+        } else {
+            reopenSegment(segments.size() - 1, segments.get(segments.size() - 1));
+        }
+    }
+
+    /**
+     * Appends a record laid out as in {@link HandHistoryFormat}, from its
+     * buffer's position to its limit. The record's hand number is assigned here.
+     *
+     * @return the hand number
+     */
+    public synchronized long append(ByteBuffer record) throws IOException {
+        if (segment == null) {
+            throw new IllegalStateException("Writer is closed");
+        }
+        int length = record.remaining();
+        if (length < RECORD_HEADER_SIZE || length > segmentSize - SEGMENT_HEADER_SIZE) {
+            throw new IllegalArgumentException("Record of " + length + " bytes does not fit a segment");
+        }
+        if (segment.remaining() < length) {
+            segment.force();
+            openSegment(segmentIndex + 1, nextHandNumber);
+        }
+        int start = segment.position();
+        int from = record.position();
+        record.position(from + HAND_NUMBER_OFFSET);
+        segment.position(start + HAND_NUMBER_OFFSET);
+        segment.put(record);
+        record.position(from);
+
+        long handNumber = nextHandNumber++;
+        segment.putLong(start + HAND_NUMBER_OFFSET, handNumber);
+        segment.putInt(start + LENGTH_OFFSET, length);
+        return handNumber;
+    }
+
+    /**
+     * @return the number the next appended hand gets
+     */
+    public synchronized long getNextHandNumber() {
+        return nextHandNumber;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Forces the records written so far to disk.
+     */
+    public synchronized void flush() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        // The mapping itself is released once the buffer is collected
+        segment = null;
+    }
+
+    private void openSegment(long index, long firstHand) throws IOException {
+        Path path = directory.resolve(segmentName(index));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        segment.order(ORDER);
+        segment.putInt(MAGIC_OFFSET, MAGIC);
+        segment.putInt(VERSION_OFFSET, VERSION);
+        segment.putLong(FIRST_HAND_OFFSET, firstHand);
+        segment.position(SEGMENT_HEADER_SIZE);
+        segmentIndex = index;
+        nextHandNumber = firstHand;
+    }
+
+    private void reopenSegment(long index, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+        segment.order(ORDER);
+        HandHistoryReader.checkHeader(segment, path);
+        long handNumber = segment.getLong(FIRST_HAND_OFFSET);
+        int position = SEGMENT_HEADER_SIZE;
+        for (int length; (length = HandHistoryReader.lengthAt(segment, position)) != 0; position += length) {
+            handNumber++;
+        }
+        segment.position(position);
+        segmentIndex = index;
+        nextHandNumber = handNumber;
+    }
+}
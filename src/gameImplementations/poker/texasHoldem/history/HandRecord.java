@@ -0,0 +1,138 @@
+package gameImplementations.poker.texasHoldem.history;
+
+import java.nio.ByteBuffer;
+
+import static gameImplementations.poker.texasHoldem.history.HandHistoryFormat.*;
+
+/**
+ * A view of one hand in a mapped segment, see {@link HandHistoryFormat}.
+ * Every accessor reads straight from the buffer; {@link HandHistoryReader}
+ * moves the same instance from record to record, so a record must not be
+ * kept past the callback it was handed to.
+ */
+public final class HandRecord {
+    public static final int RAKE = RAKE_SEAT;
+
+    private ByteBuffer buffer;
+    private int offset;
+    private int seatsOffset;
+    private int seatSize;
+    private int boardOffset;
+    private int actionsOffset;
+    private int awardsOffset;
+
+    HandRecord() {}
+
+    void moveTo(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        seatsOffset = offset + RECORD_HEADER_SIZE;
+        seatSize = seatSize(getHoleCardCount());
+        boardOffset = seatsOffset + getSeatCount() * seatSize;
+        actionsOffset = boardOffset + BOARD_SIZE;
+        awardsOffset = actionsOffset + getActionCount() * ACTION_SIZE;
+    }
+
+    public int getLength() {
+        return buffer.getInt(offset + LENGTH_OFFSET);
+    }
+
+    public long getHandNumber() {
+        return buffer.getLong(offset + HAND_NUMBER_OFFSET);
+    }
+
+    public long getTimestamp() {
+        return buffer.getLong(offset + TIMESTAMP_OFFSET);
+    }
+
+    ////////////////////////////////////////
+    // Seats
+    ////////////////////////////////////////
+
+    public int getSeatCount() {
+        return buffer.get(offset + SEAT_COUNT_OFFSET);
+    }
+
+    public long getPlayerId(int seat) {
+        return buffer.getLong(seatsOffset + seat * seatSize);
+    }
+
+    /**
+     * @return how many hole cards every seat has, 2 in Hold'em and 4 in Omaha
+     */
+    public int getHoleCardCount() {
+        return buffer.get(offset + HOLE_CARD_COUNT_OFFSET);
+    }
+
+    /**
+     * @param card 0 for the seat's first hole card, up to {@link #getHoleCardCount()}
+     * @return the {@link deck.CardId} of the hole card
+     */
+    public int getHoleCard(int seat, int card) {
+        return buffer.get(seatsOffset + seat * seatSize + Long.BYTES + card);
+    }
+
+    ////////////////////////////////////////
+    // Board
+    ////////////////////////////////////////
+
+    public int getBoardCount() {
+        return buffer.get(offset + BOARD_COUNT_OFFSET);
+    }
+
+    public int getBoardCard(int card) {
+        return buffer.get(boardOffset + card);
+    }
+
+    ////////////////////////////////////////
+    // Actions
+    ////////////////////////////////////////
+
+    public int getActionCount() {
+        return buffer.getShort(offset + ACTION_COUNT_OFFSET);
+    }
+
+    public int getActionSeat(int action) {
+        return buffer.get(actionsOffset + action * ACTION_SIZE);
+    }
+
+    /**
+     * @return the ordinal of the {@link gameImplementations.poker.texasHoldem.TexasHoldem.Street}
+     */
+    public int getActionStreet(int action) {
+        return buffer.get(actionsOffset + action * ACTION_SIZE + 1);
+    }
+
+    /**
+     * @return the ordinal of the {@link gameImplementations.poker.texasHoldem.HoldemListener.Action}
+     */
+    public int getActionType(int action) {
+        return buffer.get(actionsOffset + action * ACTION_SIZE + 2);
+    }
+
+    /**
+     * @return the seat's total bet on the street after the action, in {@link game.Chips} minor units
+     */
+    public long getActionAmount(int action) {
+        return buffer.getLong(actionsOffset + action * ACTION_SIZE + 3);
+    }
+
+    ////////////////////////////////////////
+    // Awards
+    ////////////////////////////////////////
+
+    public int getAwardCount() {
+        return buffer.getShort(offset + AWARD_COUNT_OFFSET);
+    }
+
+    /**
+     * @return the winning seat, or {@link #RAKE} for the house's cut
+     */
+    public int getAwardSeat(int award) {
+        return buffer.get(awardsOffset + award * AWARD_SIZE);
+    }
+
+    public long getAwardAmount(int award) {
+        return buffer.getLong(awardsOffset + award * AWARD_SIZE + 1);
+    }
+}
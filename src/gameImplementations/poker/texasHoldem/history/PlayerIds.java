@@ -0,0 +1,38 @@
+package gameImplementations.poker.texasHoldem.history;
+
+import participants.Player;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Numbers players in the order they are first seen, so hand records can
+ * refer to them by a {@code long}. Numbers only hold for the lifetime of the
+ * instance; callers with their own player keys pass those to
+ * {@link HandHistoryRecorder} instead.
+ */
+public class PlayerIds implements ToLongFunction<Player> {
+    private final Map<Player, Long> ids = new IdentityHashMap<>();
+    private final List<Player> players = new ArrayList<>();
+
+    @Override
+    public synchronized long applyAsLong(Player player) {
+        Long id = ids.get(player);
+        if (id == null) {
+            id = (long) players.size();
+            ids.put(player, id);
+            players.add(player);
+        }
+        return id;
+    }
+
+    /**
+     * @return the player numbered {@code id}, or null if there is none
+     */
+    public synchronized Player getPlayer(long id) {
+        return id >= 0 && id < players.size() ? players.get((int) id) : null;
+    }
+}
@@ -0,0 +1,90 @@
+package gameImplementations.poker.texasHoldem.history;
+
+import game.Chips;
+
+/**
+ * One player's totals over the hands aggregated by a {@link PlayerStatsAggregator}.
+ */
+public final class PlayerStats {
+    private final long playerId;
+    private final long hands;
+    private final long voluntaryHands;
+    private final long preFlopRaises;
+    private final long aggressiveActions;
+    private final long calls;
+    private final long showdowns;
+    private final long showdownWins;
+    private final double rake;
+
+    PlayerStats(long playerId, long hands, long voluntaryHands, long preFlopRaises, long aggressiveActions,
+                long calls, long showdowns, long showdownWins, double rake) {
+        this.playerId = playerId;
+        this.hands = hands;
+        this.voluntaryHands = voluntaryHands;
+        this.preFlopRaises = preFlopRaises;
+        this.aggressiveActions = aggressiveActions;
+        this.calls = calls;
+        this.showdowns = showdowns;
+        this.showdownWins = showdownWins;
+        this.rake = rake;
+    }
+
+    public long getPlayerId() {
+        return playerId;
+    }
+
+    public long getHands() {
+        return hands;
+    }
+
+    /**
+     * @return share of hands the player put money in pre flop without being forced to
+     */
+    public double getVpip() {
+        return ratio(voluntaryHands, hands);
+    }
+
+    /**
+     * @return share of hands the player bet or raised pre flop
+     */
+    public double getPfr() {
+        return ratio(preFlopRaises, hands);
+    }
+
+    /**
+     * @return bets and raises per call, infinite for a player who never calls
+     */
+    public double getAggression() {
+        return calls == 0 && aggressiveActions > 0 ? Double.POSITIVE_INFINITY : ratio(aggressiveActions, calls);
+    }
+
+    /**
+     * @return share of the showdowns the player reached that they won a pot in
+     */
+    public double getShowdownWinRate() {
+        return ratio(showdownWins, showdowns);
+    }
+
+    public long getShowdowns() {
+        return showdowns;
+    }
+
+    /**
+     * @return the rake taken from the player's pots, shared by what each player put in,
+     * in {@link Chips} minor units
+     */
+    public double getRake() {
+        return rake;
+    }
+
+    private static double ratio(long count, long total) {
+        return total == 0 ? 0 : count / (double) total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Player %d: %d hands, VPIP %.1f%%, PFR %.1f%%, AF %.2f, W$SD %.1f%%, rake %.2f",
+                playerId, hands, getVpip() * 100, getPfr() * 100, getAggression(), getShowdownWinRate() * 100,
+                rake / Chips.UNITS_PER_CHIP);
+    }
+}
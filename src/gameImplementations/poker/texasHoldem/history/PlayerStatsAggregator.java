@@ -0,0 +1,151 @@
+package gameImplementations.poker.texasHoldem.history;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static gameImplementations.poker.texasHoldem.history.HandHistoryFormat.*;
+
+/**
+ * Per player statistics over the hand history a {@link HandHistoryWriter}
+ * keeps in a directory. Every segment is a chunk: a {@link ForkJoinPool}
+ * task reads it into {@link HandColumns}, counts them into its own
+ * per player columns, and the chunk totals are merged at the end.
+ *
+ * The aggregator remembers where it stopped, so {@link #update()} only
+ * reads the hands appended since, while a writer may still be appending.
+ */
+public class PlayerStatsAggregator {
+    private final Path directory;
+    private final ForkJoinPool pool;
+    private PlayerStatsTable totals;
+    private long hands;
+    // Where the next update starts reading
+    private int segment;
+    private int offset;
+
+    public PlayerStatsAggregator(Path directory) {
+        this(directory, ForkJoinPool.commonPool());
+    }
+
+    public PlayerStatsAggregator(Path directory, ForkJoinPool pool) {
+        this.directory = directory;
+        this.pool = pool;
+        reset();
+    }
+
+    /**
+     * Adds the hands appended since the last update.
+     *
+     * @return the number of hands added
+     */
+    public synchronized long update() throws IOException {
+        List<Path> segments = HandHistoryReader.segments(directory);
+        if (segments.size() <= segment) {
+            return 0;
+        }
+        Chunk chunk;
+        try {
+            chunk = pool.invoke(new ChunkTask(segments, segment, segments.size(), offset));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        totals.merge(chunk.table);
+        hands += chunk.hands;
+        segment = segments.size() - 1;
+        offset = chunk.end;
+        return chunk.hands;
+    }
+
+    /**
+     * Forgets every hand counted so far and reads the whole history again.
+     *
+     * @return the number of hands read
+     */
+    public synchronized long rescan() throws IOException {
+        reset();
+        return update();
+    }
+
+    public synchronized long getHands() {
+        return hands;
+    }
+
+    /**
+     * @return the player's totals, or null if the player played no hand
+     */
+    public synchronized PlayerStats getStats(long playerId) {
+        return totals.get(playerId);
+    }
+
+    /**
+     * @return every player's totals by player id
+     */
+    public synchronized Map<Long, PlayerStats> getStats() {
+        return totals.getAll();
+    }
+
+    private void reset() {
+        totals = new PlayerStatsTable();
+        hands = 0;
+        segment = 0;
+        offset = SEGMENT_HEADER_SIZE;
+    }
+
+    private static class Chunk {
+        private final PlayerStatsTable table;
+        private long hands;
+        // Offset past the last record of the chunk's last segment
+        private int end;
+
+        private Chunk(PlayerStatsTable table, long hands, int end) {
+            this.table = table;
+            this.hands = hands;
+            this.end = end;
+        }
+    }
+
+    private static class ChunkTask extends RecursiveTask<Chunk> {
+        private final List<Path> segments;
+        private final int from;
+        private final int to;
+        // Offset to start reading the first segment at
+        private final int offset;
+
+        private ChunkTask(List<Path> segments, int from, int to, int offset) {
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+            this.offset = offset;
+        }
+
+        @Override
+        protected Chunk compute() {
+            if (to - from > 1) {
+                int middle = from + (to - from) / 2;
+                ChunkTask left = new ChunkTask(segments, from, middle, offset);
+                left.fork();
+                Chunk result = new ChunkTask(segments, middle, to, SEGMENT_HEADER_SIZE).compute();
+                Chunk first = left.join();
+                first.table.merge(result.table);
+                first.hands += result.hands;
+                first.end = result.end;
+                return first;
+            }
+            HandColumns columns = new HandColumns();
+            int end;
+            try {
+                end = HandHistoryReader.scan(segments.get(from), offset, new HandRecord(), columns::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            PlayerStatsTable table = new PlayerStatsTable();
+            table.add(columns);
+            return new Chunk(table, columns.getHands(), end);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package gameImplementations.poker.texasHoldem.history;
+
+import gameImplementations.poker.texasHoldem.HoldemListener;
+import gameImplementations.poker.texasHoldem.TexasHoldem;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static gameImplementations.poker.texasHoldem.history.HandHistoryFormat.*;
+
+/**
+ * Per player counters, one column per statistic, found through an open
+ * addressing table of player ids. Tables built over separate runs of hands
+ * add up with {@link #merge(PlayerStatsTable)}.
+ */
+final class PlayerStatsTable {
+    private static final int INITIAL_CAPACITY = 1 << 6;
+
+    private static final int PRE_FLOP = TexasHoldem.Street.PRE_FLOP.ordinal();
+    private static final int ANTE = HoldemListener.Action.ANTE.ordinal();
+    private static final int CALL = HoldemListener.Action.CALL.ordinal();
+    private static final int FOLD = HoldemListener.Action.FOLD.ordinal();
+    private static final HoldemListener.Action[] ACTIONS = HoldemListener.Action.values();
+
+    // slot -> row + 1, 0 for a free slot
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+    private int rows;
+    private long[] playerId = new long[INITIAL_CAPACITY];
+    private long[] hands = new long[INITIAL_CAPACITY];
+    private long[] voluntaryHands = new long[INITIAL_CAPACITY];
+    private long[] preFlopRaises = new long[INITIAL_CAPACITY];
+    private long[] aggressiveActions = new long[INITIAL_CAPACITY];
+    private long[] calls = new long[INITIAL_CAPACITY];
+    private long[] showdowns = new long[INITIAL_CAPACITY];
+    private long[] showdownWins = new long[INITIAL_CAPACITY];
+    private double[] rake = new double[INITIAL_CAPACITY];
+
+    // Per hand scratch, indexed by seat
+    private final int[] seatRow = new int[MAX_SEATS];
+    private final boolean[] voluntary = new boolean[MAX_SEATS];
+    private final boolean[] raised = new boolean[MAX_SEATS];
+    private final boolean[] folded = new boolean[MAX_SEATS];
+    private final boolean[] won = new boolean[MAX_SEATS];
+    private final long[] streetBet = new long[MAX_SEATS];
+    private final long[] contributed = new long[MAX_SEATS];
+
+    /**
+     * Counts every hand in the columns.
+     */
+    void add(HandColumns columns) {
+        for (int hand = 0; hand < columns.hands; hand++) {
+            int firstSeat = columns.seatStart[hand];
+            int seats = columns.seatStart[hand + 1] - firstSeat;
+            for (int seat = 0; seat < seats; seat++) {
+                int row = row(columns.playerId[firstSeat + seat]);
+                seatRow[seat] = row;
+                hands[row]++;
+                voluntary[seat] = raised[seat] = folded[seat] = won[seat] = false;
+                streetBet[seat] = contributed[seat] = 0;
+            }
+
+            int street = PRE_FLOP;
+            for (int action = columns.actionStart[hand]; action < columns.actionStart[hand + 1]; action++) {
+                int seat = columns.actionSeat[action];
+                int type = columns.actionType[action];
+                long amount = columns.actionAmount[action];
+                if (columns.actionStreet[action] != street) {
+                    street = columns.actionStreet[action];
+                    Arrays.fill(streetBet, 0, seats, 0);
+                }
+                if (type == ANTE) {
+                    contributed[seat] += amount;
+                    continue;
+                }
+                // Amounts are the seat's whole bet on the street so far
+                if (amount > streetBet[seat]) {
+                    contributed[seat] += amount - streetBet[seat];
+                    streetBet[seat] = amount;
+                }
+                boolean aggressive = ACTIONS[type].isAggressive();
+                boolean called = type == CALL || ACTIONS[type].isAllIn() && !aggressive;
+                if (type == FOLD) {
+                    folded[seat] = true;
+                } else if (called) {
+                    calls[seatRow[seat]]++;
+                } else if (aggressive) {
+                    aggressiveActions[seatRow[seat]]++;
+                }
+                if (street == PRE_FLOP) {
+                    voluntary[seat] |= called || aggressive;
+                    raised[seat] |= aggressive;
+                }
+            }
+
+            long handRake = 0;
+            for (int award = columns.awardStart[hand]; award < columns.awardStart[hand + 1]; award++) {
+                int seat = columns.awardSeat[award];
+                if (seat == RAKE_SEAT) {
+                    handRake += columns.awardAmount[award];
+                } else {
+                    won[seat] = true;
+                }
+            }
+
+            // Only pots two players still in may win are raked; whatever went in above the
+            // second largest of their contributions came back uncalled or was never contested
+            int unfolded = 0;
+            long largest = 0;
+            long contested = 0;
+            for (int seat = 0; seat < seats; seat++) {
+                if (!folded[seat]) {
+                    unfolded++;
+                    contested = Math.max(contested, Math.min(largest, contributed[seat]));
+                    largest = Math.max(largest, contributed[seat]);
+                }
+            }
+            long pot = 0;
+            for (int seat = 0; seat < seats; seat++) {
+                contributed[seat] = Math.min(contributed[seat], contested);
+                pot += contributed[seat];
+            }
+            for (int seat = 0; seat < seats; seat++) {
+                int row = seatRow[seat];
+                voluntaryHands[row] += voluntary[seat] ? 1 : 0;
+                preFlopRaises[row] += raised[seat] ? 1 : 0;
+                if (unfolded > 1 && !folded[seat]) {
+                    showdowns[row]++;
+                    showdownWins[row] += won[seat] ? 1 : 0;
+                }
+                if (pot > 0) {
+                    rake[row] += handRake * (double) contributed[seat] / pot;
+                }
+            }
+        }
+    }
+
+    void merge(PlayerStatsTable other) {
+        for (int from = 0; from < other.rows; from++) {
+            int row = row(other.playerId[from]);
+            hands[row] += other.hands[from];
+            voluntaryHands[row] += other.voluntaryHands[from];
+            preFlopRaises[row] += other.preFlopRaises[from];
+            aggressiveActions[row] += other.aggressiveActions[from];
+            calls[row] += other.calls[from];
+            showdowns[row] += other.showdowns[from];
+            showdownWins[row] += other.showdownWins[from];
+            rake[row] += other.rake[from];
+        }
+    }
+
+    /**
+     * @return the player's totals, or null if the player played no hand
+     */
+    PlayerStats get(long id) {
+        int slot = find(id);
+        return slots[slot] == 0 ? null : toStats(slots[slot] - 1);
+    }
+
+    Map<Long, PlayerStats> getAll() {
+        Map<Long, PlayerStats> all = new HashMap<>();
+        for (int row = 0; row < rows; row++) {
+            all.put(playerId[row], toStats(row));
+        }
+        return all;
+    }
+
+    private PlayerStats toStats(int row) {
+        return new PlayerStats(playerId[row], hands[row], voluntaryHands[row], preFlopRaises[row],
+                aggressiveActions[row], calls[row], showdowns[row], showdownWins[row], rake[row]);
+    }
+
+    ////////////////////////////////////////
+    // Id table
+    ////////////////////////////////////////
+
+    private int row(long id) {
+        int slot = find(id);
+        if (slots[slot] != 0) {
+            return slots[slot] - 1;
+        }
+        if (rows == playerId.length) {
+            grow();
+            slot = find(id);
+        }
+        int row = rows++;
+        slots[slot] = row + 1;
+        playerId[row] = id;
+        return row;
+    }
+
+    /**
+     * @return the slot holding the id, or the free slot it would go in
+     */
+    private int find(long id) {
+        int mask = slots.length - 1;
+        int slot = mix(id) & mask;
+        while (slots[slot] != 0 && playerId[slots[slot] - 1] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int capacity = playerId.length * 2;
+        playerId = Arrays.copyOf(playerId, capacity);
+        hands = Arrays.copyOf(hands, capacity);
+        voluntaryHands = Arrays.copyOf(voluntaryHands, capacity);
+        preFlopRaises = Arrays.copyOf(preFlopRaises, capacity);
+        aggressiveActions = Arrays.copyOf(aggressiveActions, capacity);
+        calls = Arrays.copyOf(calls, capacity);
+        showdowns = Arrays.copyOf(showdowns, capacity);
+        showdownWins = Arrays.copyOf(showdownWins, capacity);
+        rake = Arrays.copyOf(rake, capacity);
+        // Keep the table at most half full
+        slots = new int[capacity * 2];
+        for (int row = 0; row < rows; row++) {
+            slots[find(playerId[row])] = row + 1;
+        }
+    }
+
+    private static int mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32);
+    }
+}